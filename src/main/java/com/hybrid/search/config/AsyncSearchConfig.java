@@ -0,0 +1,99 @@
+package com.hybrid.search.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Configuration for the executors running blocking calls of searches
+ * Query embedding batches and local vector scans each get their own executor, so slow embedding calls
+ * cannot hold up scans queued behind them. LLM rewrites need no executor, they are streamed without
+ * blocking. Every executor bounds the work it accepts and rejects the rest, which the API reports as
+ * 503 Service Unavailable.
+ * With spring.threads.virtual.enabled=true on Java 21+ each call gets its own virtual thread,
+ * otherwise fixed platform thread pools with bounded queues are used
+ */
+@Slf4j
+@Configuration
+public class AsyncSearchConfig {
+
+    private final boolean virtualThreads;
+
+    public AsyncSearchConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsRequested) {
+        // Virtual threads need Java 21; the project targets Java 17, where requesting them would fail at startup
+        this.virtualThreads = virtualThreadsRequested && Runtime.version().feature() >= 21;
+        if (virtualThreadsRequested && !virtualThreads) {
+            log.warn("spring.threads.virtual.enabled requires Java 21+, using platform thread pools on Java {}",
+                    Runtime.version().feature());
+        }
+    }
+
+    @Bean(name = "embeddingExecutor")
+    public Executor embeddingExecutor(@Value("${search.executor.embedding.pool-size:8}") int poolSize,
+                                      @Value("${search.executor.embedding.queue-capacity:100}") int queueCapacity) {
+        return executor("embedding", poolSize, queueCapacity);
+    }
+
+    @Bean(name = "scanExecutor")
+    public Executor scanExecutor(@Value("${search.executor.scan.pool-size:8}") int poolSize,
+                                 @Value("${search.executor.scan.queue-capacity:2000}") int queueCapacity) {
+        return executor("scan", poolSize, queueCapacity);
+    }
+
+    private Executor executor(String name, int poolSize, int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-");
+            executor.setVirtualThreads(true);
+            log.info("Initialized {} executor on virtual threads with at most {} calls in flight", name, poolSize + queueCapacity);
+            return new BoundedExecutor(executor, poolSize + queueCapacity);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity); // Full queue rejects with TaskRejectedException
+        executor.setThreadNamePrefix(name + "-");
+        executor.initialize();
+        log.info("Initialized {} executor with {} platform threads and a queue of {}", name, poolSize, queueCapacity);
+        return executor;
+    }
+
+    /**
+     * Rejects tasks once a fixed number are in flight, since virtual thread executors never queue
+     */
+    private static class BoundedExecutor implements Executor {
+        private final Executor delegate;
+        private final Semaphore permits;
+
+        BoundedExecutor(Executor delegate, int maxInFlight) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(maxInFlight);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("Executor is at capacity");
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+    }
+}
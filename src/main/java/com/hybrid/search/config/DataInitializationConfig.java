@@ -2,6 +2,7 @@ package com.hybrid.search.config;
 
 import com.hybrid.search.model.Document;
 import com.hybrid.search.service.lexical.SolrSearchService;
+import com.hybrid.search.service.semantic.IndexingStats;
 import com.hybrid.search.service.semantic.SemanticSearchService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -29,9 +30,10 @@ public class DataInitializationConfig {
             
             // Index documents in both Solr and Vector Store
             solrSearchService.indexDocuments(sampleDocuments);
-            semanticSearchService.indexDocuments(sampleDocuments);
+            IndexingStats stats = semanticSearchService.indexDocuments(sampleDocuments);
             
-            log.info("Sample data initialization completed. Indexed {} documents.", sampleDocuments.size());
+            log.info("Sample data initialization completed. Indexed {} documents ({} embedded, {} skipped via cache, {} failed).",
+                    sampleDocuments.size(), stats.getEmbedded(), stats.getSkipped(), stats.getFailed());
         };
     }
 
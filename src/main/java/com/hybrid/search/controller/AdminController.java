@@ -0,0 +1,57 @@
+package com.hybrid.search.controller;
+
+import com.hybrid.search.dto.SlowQueryEntry;
+import com.hybrid.search.service.semantic.EmbeddingCache;
+import com.hybrid.search.service.semantic.SemanticSearchService;
+import com.hybrid.search.service.tracing.SlowQueryLog;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * REST API Controller for operational diagnostics
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final SlowQueryLog slowQueryLog;
+    private final EmbeddingCache embeddingCache;
+    private final SemanticSearchService semanticSearchService;
+
+    public AdminController(SlowQueryLog slowQueryLog, EmbeddingCache embeddingCache,
+                           SemanticSearchService semanticSearchService) {
+        this.slowQueryLog = slowQueryLog;
+        this.embeddingCache = embeddingCache;
+        this.semanticSearchService = semanticSearchService;
+    }
+
+    /**
+     * Returns the slowest recent search requests with their per-stage durations
+     * Optionally limited to the most recent slow query log windows
+     */
+    @GetMapping("/slow-queries")
+    public ResponseEntity<List<SlowQueryEntry>> slowQueries(@RequestParam(required = false) Integer windows) {
+        return ResponseEntity.ok(windows != null ? slowQueryLog.snapshot(windows) : slowQueryLog.snapshot());
+    }
+
+    /**
+     * Clears the slow query log
+     */
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<String> clearSlowQueries() {
+        slowQueryLog.clear();
+        return ResponseEntity.ok("Slow query log cleared");
+    }
+
+    /**
+     * Drops embedding cache entries of documents that have since been re-indexed with different text
+     */
+    @PostMapping("/embedding-cache/compact")
+    public ResponseEntity<String> compactEmbeddingCache() throws IOException {
+        int dropped = semanticSearchService.compactEmbeddingCache();
+        return ResponseEntity.ok(String.format("Embedding cache compacted (dropped: %d, kept: %d)", dropped, embeddingCache.size()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.hybrid.search.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Turns work rejected by a full search executor into 503 responses, so callers back off instead of queueing
+ */
+@Slf4j
+@RestControllerAdvice
+public class CapacityExceptionHandler {
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejected(RejectedExecutionException e) {
+        log.warn("Rejecting request, search executors are at capacity: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Search capacity exhausted, retry later");
+    }
+}
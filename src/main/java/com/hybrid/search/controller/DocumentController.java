@@ -2,9 +2,11 @@ package com.hybrid.search.controller;
 
 import com.hybrid.search.model.Document;
 import com.hybrid.search.service.lexical.SolrSearchService;
+import com.hybrid.search.service.semantic.IndexingStats;
 import com.hybrid.search.service.semantic.SemanticSearchService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,8 +36,12 @@ public class DocumentController {
     public ResponseEntity<String> indexDocument(@Valid @RequestBody Document document) {
         log.info("Indexing document with id: {}", document.getId());
         solrSearchService.indexDocument(document);
-        semanticSearchService.indexDocument(document);
-        return ResponseEntity.ok("Document indexed successfully");
+        IndexingStats stats = semanticSearchService.indexDocument(document);
+        if (stats.hasFailures()) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Document could not be indexed in the vector store");
+        }
+        return ResponseEntity.ok(String.format("Document indexed successfully (embedded: %d, skipped: %d, forwarded: %d)",
+                stats.getEmbedded(), stats.getSkipped(), stats.getForwarded()));
     }
 
     /**
@@ -45,8 +51,14 @@ public class DocumentController {
     public ResponseEntity<String> indexDocuments(@Valid @RequestBody List<Document> documents) {
         log.info("Indexing {} documents", documents.size());
         solrSearchService.indexDocuments(documents);
-        semanticSearchService.indexDocuments(documents);
-        return ResponseEntity.ok("Documents indexed successfully");
+        IndexingStats stats = semanticSearchService.indexDocuments(documents);
+        if (stats.hasFailures()) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(String.format(
+                    "Documents partially indexed (embedded: %d, skipped: %d, forwarded: %d, failed: %d)",
+                    stats.getEmbedded(), stats.getSkipped(), stats.getForwarded(), stats.getFailed()));
+        }
+        return ResponseEntity.ok(String.format("Documents indexed successfully (embedded: %d, skipped: %d, forwarded: %d)",
+                stats.getEmbedded(), stats.getSkipped(), stats.getForwarded()));
     }
 }
 
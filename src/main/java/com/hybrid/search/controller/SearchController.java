@@ -7,12 +7,15 @@ import com.hybrid.search.model.Document;
 import com.hybrid.search.service.hybrid.HybridSearchService;
 import com.hybrid.search.service.lexical.SolrSearchService;
 import com.hybrid.search.service.semantic.SemanticSearchService;
+import com.hybrid.search.service.tracing.SearchTrace;
+import com.hybrid.search.service.tracing.SlowQueryLog;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST API Controller for Hybrid Search Service
@@ -25,13 +28,16 @@ public class SearchController {
     private final HybridSearchService hybridSearchService;
     private final SolrSearchService solrSearchService;
     private final SemanticSearchService semanticSearchService;
+    private final SlowQueryLog slowQueryLog;
 
     public SearchController(HybridSearchService hybridSearchService,
                            SolrSearchService solrSearchService,
-                           SemanticSearchService semanticSearchService) {
+                           SemanticSearchService semanticSearchService,
+                           SlowQueryLog slowQueryLog) {
         this.hybridSearchService = hybridSearchService;
         this.solrSearchService = solrSearchService;
         this.semanticSearchService = semanticSearchService;
+        this.slowQueryLog = slowQueryLog;
     }
 
     /**
@@ -39,20 +45,25 @@ public class SearchController {
      */
     @PostMapping("/hybrid")
     public ResponseEntity<SearchResponse> hybridSearch(@Valid @RequestBody SearchRequest request) {
-        log.info("Received hybrid search request: {}", request.getQuery());
+        log.debug("Received hybrid search request: {}", request.getQuery());
+        SearchTrace trace = new SearchTrace("hybrid", request.getQuery());
         
-        HybridSearchService.HybridSearchResult result = hybridSearchService.performHybridSearch(request);
+        HybridSearchService.HybridSearchResult result = hybridSearchService.performHybridSearch(request, trace);
+        slowQueryLog.record(trace.finish(result.getResults().size()));
         
-        SearchResponse response = new SearchResponse(
-                result.getOriginalQuery(),
-                result.getRewrittenQuery(),
-                result.getResults(),
-                result.getTotalResults(),
-                result.getLexicalResultsCount(),
-                result.getSemanticResultsCount()
-        );
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(toResponse(result));
+    }
+
+    /**
+     * Performs hybrid search asynchronously, releasing the servlet thread while the search is in flight
+     */
+    @PostMapping("/hybrid/async")
+    public CompletableFuture<ResponseEntity<SearchResponse>> hybridSearchAsync(@Valid @RequestBody SearchRequest request) {
+        log.debug("Received async hybrid search request: {}", request.getQuery());
+        SearchTrace trace = new SearchTrace("hybrid", request.getQuery());
+        return hybridSearchService.performHybridSearchAsync(request, trace)
+                .whenComplete((result, error) -> slowQueryLog.record(trace.finish(result != null ? result.getResults().size() : 0)))
+                .thenApply(result -> ResponseEntity.ok(toResponse(result)));
     }
 
     /**
@@ -61,20 +72,61 @@ public class SearchController {
     @GetMapping("/lexical")
     public ResponseEntity<List<Document>> lexicalSearch(@RequestParam String query,
                                                        @RequestParam(defaultValue = "10") int maxResults) {
-        log.info("Received lexical search request: {}", query);
-        List<Document> results = solrSearchService.search(query, maxResults);
+        log.debug("Received lexical search request: {}", query);
+        SearchTrace trace = new SearchTrace("lexical", query);
+        List<Document> results = solrSearchService.search(query, maxResults, trace);
+        slowQueryLog.record(trace.finish(results.size()));
         return ResponseEntity.ok(results);
     }
 
+    /**
+     * Performs lexical-only search asynchronously using Solr
+     */
+    @GetMapping("/lexical/async")
+    public CompletableFuture<ResponseEntity<List<Document>>> lexicalSearchAsync(@RequestParam String query,
+                                                                               @RequestParam(defaultValue = "10") int maxResults) {
+        log.debug("Received async lexical search request: {}", query);
+        SearchTrace trace = new SearchTrace("lexical", query);
+        return solrSearchService.searchAsync(query, maxResults, trace)
+                .whenComplete((results, error) -> slowQueryLog.record(trace.finish(results != null ? results.size() : 0)))
+                .thenApply(ResponseEntity::ok);
+    }
+
     /**
      * Performs semantic-only search using vector embeddings
      */
     @GetMapping("/semantic")
     public ResponseEntity<List<Document>> semanticSearch(@RequestParam String query,
                                                         @RequestParam(defaultValue = "10") int maxResults) {
-        log.info("Received semantic search request: {}", query);
-        List<Document> results = semanticSearchService.search(query, maxResults);
+        log.debug("Received semantic search request: {}", query);
+        SearchTrace trace = new SearchTrace("semantic", query);
+        List<Document> results = semanticSearchService.search(query, maxResults, trace);
+        slowQueryLog.record(trace.finish(results.size()));
         return ResponseEntity.ok(results);
     }
+
+    /**
+     * Performs semantic-only search asynchronously using vector embeddings
+     */
+    @GetMapping("/semantic/async")
+    public CompletableFuture<ResponseEntity<List<Document>>> semanticSearchAsync(@RequestParam String query,
+                                                                                @RequestParam(defaultValue = "10") int maxResults) {
+        log.debug("Received async semantic search request: {}", query);
+        SearchTrace trace = new SearchTrace("semantic", query);
+        return semanticSearchService.searchAsync(query, maxResults, trace)
+                .whenComplete((results, error) -> slowQueryLog.record(trace.finish(results != null ? results.size() : 0)))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    private SearchResponse toResponse(HybridSearchService.HybridSearchResult result) {
+        return new SearchResponse(
+                result.getOriginalQuery(),
+                result.getRewrittenQuery(),
+                result.getResults(),
+                result.getTotalResults(),
+                result.getLexicalResultsCount(),
+                result.getSemanticResultsCount()
+        );
+    }
 }
 
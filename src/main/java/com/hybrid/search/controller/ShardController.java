@@ -0,0 +1,54 @@
+package com.hybrid.search.controller;
+
+import com.hybrid.search.dto.SearchResult;
+import com.hybrid.search.dto.ShardSearchRequest;
+import com.hybrid.search.model.Document;
+import com.hybrid.search.service.semantic.IndexingStats;
+import com.hybrid.search.service.semantic.SemanticSearchService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Internal REST API used by peer nodes in cluster mode to reach this node's vector shard
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/shard")
+public class ShardController {
+
+    private final SemanticSearchService semanticSearchService;
+
+    public ShardController(SemanticSearchService semanticSearchService) {
+        this.semanticSearchService = semanticSearchService;
+    }
+
+    /**
+     * Scans the local vector shard with an embedding computed by the coordinator
+     */
+    @PostMapping("/search")
+    public ResponseEntity<List<SearchResult>> searchShard(@Valid @RequestBody ShardSearchRequest request) {
+        List<SearchResult> results = semanticSearchService.searchLocalShard(request.getEmbedding(), request.getTopK());
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Indexes documents forwarded by a peer into the local vector shard
+     */
+    @PostMapping("/documents")
+    public ResponseEntity<String> indexShardDocuments(@Valid @RequestBody List<Document> documents) {
+        log.info("Indexing {} forwarded documents in local shard", documents.size());
+        IndexingStats stats = semanticSearchService.indexLocalShard(documents);
+        if (stats.hasFailures()) {
+            // Non-2xx so the forwarding node does not count these documents as indexed
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(String.format("Failed to index %d documents", stats.getFailed()));
+        }
+        return ResponseEntity.ok(String.format("Documents indexed successfully (embedded: %d, skipped: %d)",
+                stats.getEmbedded(), stats.getSkipped()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.hybrid.search.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request sent by a coordinator to scan a peer's local vector shard
+ * Carries the already computed query embedding so peers do not re-embed the query
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardSearchRequest {
+    @NotEmpty(message = "Embedding cannot be empty")
+    private List<Double> embedding;
+
+    @NotNull(message = "topK is required")
+    @Positive(message = "topK must be positive")
+    private Integer topK = 10;
+}
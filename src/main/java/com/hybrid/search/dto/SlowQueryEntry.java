@@ -0,0 +1,19 @@
+package com.hybrid.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryEntry {
+    private String type; // "hybrid", "lexical" or "semantic"
+    private Integer queryHash;
+    private String startedAt;
+    private Double totalMs;
+    private Integer resultCount;
+    private Map<String, Double> stagesMs;
+}
@@ -0,0 +1,199 @@
+package com.hybrid.search.service.cluster;
+
+import com.hybrid.search.dto.SearchResult;
+import com.hybrid.search.dto.ShardSearchRequest;
+import com.hybrid.search.model.Document;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Shard Coordinator - Assigns documents to nodes by consistent hashing and scatters
+ * vector searches to peer instances over HTTP
+ * Peer searches use the JDK HTTP client's async API, so no thread is held while a peer is scanning.
+ * Requests and responses are mapped with the application's JSON mapper, the one peers' controllers use
+ */
+@Slf4j
+@Service
+public class ShardCoordinator {
+
+    private static final TypeReference<List<SearchResult>> SEARCH_RESULTS = new TypeReference<>() {};
+
+    private final boolean enabled;
+    private final String selfUrl;
+    private final List<String> remotePeers;
+    private final ConsistentHashRing ring;
+    private final long peerTimeoutMs;
+    private final long forwardTimeoutMs;
+    private final int forwardAttempts;
+    private final HttpClient httpClient;
+    private final JsonMapper jsonMapper;
+
+    public ShardCoordinator(JsonMapper jsonMapper,
+                            @Value("${cluster.enabled:false}") boolean enabled,
+                            @Value("${cluster.self-url:http://localhost:${server.port:8080}}") String selfUrl,
+                            @Value("${cluster.peers:}") String[] peers,
+                            @Value("${cluster.virtual-nodes:128}") int virtualNodes,
+                            @Value("${cluster.peer-timeout-ms:500}") long peerTimeoutMs,
+                            @Value("${cluster.forward-timeout-ms:30000}") long forwardTimeoutMs,
+                            @Value("${cluster.forward-retries:2}") int forwardRetries) {
+        this.enabled = enabled;
+        this.selfUrl = normalize(selfUrl);
+        this.jsonMapper = jsonMapper;
+        this.peerTimeoutMs = peerTimeoutMs;
+        this.forwardTimeoutMs = forwardTimeoutMs;
+        this.forwardAttempts = forwardRetries + 1;
+
+        Set<String> nodes = new LinkedHashSet<>();
+        nodes.add(this.selfUrl);
+        for (String peer : peers) {
+            if (!peer.isBlank()) {
+                nodes.add(normalize(peer));
+            }
+        }
+        this.ring = new ConsistentHashRing(nodes, virtualNodes);
+        this.remotePeers = nodes.stream()
+                .filter(node -> !node.equals(this.selfUrl))
+                .collect(Collectors.toList());
+
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(peerTimeoutMs))
+                .build();
+
+        if (enabled) {
+            log.info("Initialized shard coordinator at {} with {} remote peers", this.selfUrl, remotePeers.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled && !remotePeers.isEmpty();
+    }
+
+    /**
+     * Groups documents by the node that owns them
+     */
+    public Map<String, List<Document>> partition(List<Document> documents) {
+        Map<String, List<Document>> byNode = new LinkedHashMap<>();
+        for (Document document : documents) {
+            String node = isEnabled() ? ring.nodeFor(document.getId()) : selfUrl;
+            byNode.computeIfAbsent(node, key -> new ArrayList<>()).add(document);
+        }
+        return byNode;
+    }
+
+    public String getSelfUrl() {
+        return selfUrl;
+    }
+
+    /**
+     * Scatters a vector search to all remote peers and gathers their top-K hits
+     * Slow or unreachable peers contribute no results instead of failing the search
+     * The timeout starts when the request is sent, so it never includes time spent waiting for a thread
+     */
+    public CompletableFuture<List<SearchResult>> scatterSearch(List<Double> embedding, int topK) {
+        if (!isEnabled()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        byte[] body;
+        try {
+            body = jsonMapper.writeValueAsBytes(new ShardSearchRequest(embedding, topK));
+        } catch (JacksonException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        List<CompletableFuture<List<SearchResult>>> futures = remotePeers.stream()
+                .map(peer -> searchPeer(peer, body)
+                        .completeOnTimeout(null, peerTimeoutMs, TimeUnit.MILLISECONDS)
+                        .handle((results, error) -> {
+                            if (error != null) {
+                                log.warn("Peer {} failed shard search: {}", peer, error.getMessage());
+                                return List.<SearchResult>of();
+                            }
+                            if (results == null) {
+                                log.warn("Peer {} timed out after {} ms", peer, peerTimeoutMs);
+                                return List.<SearchResult>of();
+                            }
+                            return results;
+                        }))
+                .collect(Collectors.toList());
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> futures.stream()
+                        .flatMap(future -> future.join().stream())
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Forwards documents to the node that owns them, retrying failed attempts
+     * Peers embed forwarded documents before answering, so forwards get a much longer timeout than searches.
+     * Returns only once the peer has answered 2xx; the last failure is rethrown to the caller
+     */
+    public void forwardDocuments(String node, List<Document> documents) {
+        HttpRequest request = post(node + "/api/shard/documents", jsonMapper.writeValueAsBytes(documents), forwardTimeoutMs);
+        for (int attempt = 1; ; attempt++) {
+            RuntimeException failure;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 == 2) {
+                    log.info("Forwarded {} documents to {}", documents.size(), node);
+                    return;
+                }
+                failure = new IllegalStateException("Peer answered HTTP " + response.statusCode());
+            } catch (IOException e) {
+                failure = new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while forwarding documents to " + node, e);
+            }
+            if (attempt >= forwardAttempts) {
+                throw failure;
+            }
+            log.warn("Attempt {} to forward {} documents to {} failed: {}", attempt, documents.size(), node, failure.getMessage());
+        }
+    }
+
+    private CompletableFuture<List<SearchResult>> searchPeer(String peer, byte[] body) {
+        return httpClient.sendAsync(post(peer + "/api/shard/search", body, peerTimeoutMs), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new IllegalStateException("Peer answered HTTP " + response.statusCode());
+                    }
+                    List<SearchResult> results = jsonMapper.readValue(response.body(), SEARCH_RESULTS);
+                    return results != null ? results : new ArrayList<SearchResult>();
+                });
+    }
+
+    private static HttpRequest post(String url, byte[] body, long timeoutMs) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
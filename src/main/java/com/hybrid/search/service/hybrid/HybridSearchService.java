@@ -5,11 +5,14 @@ import com.hybrid.search.dto.SearchResult;
 import com.hybrid.search.model.Document;
 import com.hybrid.search.service.lexical.SolrSearchService;
 import com.hybrid.search.service.query.QueryRewritingService;
+import com.hybrid.search.service.semantic.SemanticHit;
 import com.hybrid.search.service.semantic.SemanticSearchService;
+import com.hybrid.search.service.tracing.SearchTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -35,20 +38,22 @@ public class HybridSearchService {
     /**
      * Performs hybrid search combining lexical and semantic results
      */
-    public HybridSearchResult performHybridSearch(SearchRequest request) {
+    public HybridSearchResult performHybridSearch(SearchRequest request, SearchTrace trace) {
         // Step 1: Rewrite query using LLM
-        String rewrittenQuery = queryRewritingService.rewriteQuery(request.getQuery());
+        String rewrittenQuery = queryRewritingService.rewriteQuery(request.getQuery(), trace);
 
         // Step 2: Perform parallel searches
-        List<Document> lexicalResults = solrSearchService.search(rewrittenQuery, request.getMaxResults());
-        List<Document> semanticResults = semanticSearchService.search(rewrittenQuery, request.getMaxResults());
+        List<SearchResult> lexicalResults = solrSearchService.searchWithScores(rewrittenQuery, request.getMaxResults(), trace);
+        List<SemanticHit> semanticResults = semanticSearchService.searchHits(rewrittenQuery, request.getMaxResults(), trace);
 
         // Step 3: Combine and rank results
         List<SearchResult> combinedResults = combineAndRankResults(
                 lexicalResults,
                 semanticResults,
                 request.getLexicalWeight(),
-                request.getSemanticWeight()
+                request.getSemanticWeight(),
+                request.getMaxResults(),
+                trace
         );
 
         return new HybridSearchResult(
@@ -60,21 +65,68 @@ public class HybridSearchService {
         );
     }
 
+    /**
+     * Performs hybrid search without blocking the calling thread
+     * Solr and vector searches are started together once the rewritten query is available
+     */
+    public CompletableFuture<HybridSearchResult> performHybridSearchAsync(SearchRequest request, SearchTrace trace) {
+        return queryRewritingService.rewriteQueryAsync(request.getQuery(), trace)
+                .thenCompose(rewrittenQuery -> {
+                    CompletableFuture<List<SearchResult>> lexicalFuture =
+                            solrSearchService.searchWithScoresAsync(rewrittenQuery, request.getMaxResults(), trace);
+                    CompletableFuture<List<SemanticHit>> semanticFuture =
+                            semanticSearchService.searchHitsAsync(rewrittenQuery, request.getMaxResults(), trace);
+
+                    return lexicalFuture.thenCombine(semanticFuture, (lexicalResults, semanticResults) ->
+                            new HybridSearchResult(
+                                    request.getQuery(),
+                                    rewrittenQuery,
+                                    combineAndRankResults(
+                                            lexicalResults,
+                                            semanticResults,
+                                            request.getLexicalWeight(),
+                                            request.getSemanticWeight(),
+                                            request.getMaxResults(),
+                                            trace
+                                    ),
+                                    (long) lexicalResults.size(),
+                                    (long) semanticResults.size()
+                            ));
+                });
+    }
+
     /**
      * Combines lexical and semantic results with weighted scoring and interleaving
+     * Lexical results are normalized by the top Solr score, falling back to reciprocal rank when scores are missing,
+     * and semantic hits by the top cosine similarity
+     * Semantic hits carry only ids until ranking is done; the list is trimmed to maxResults and only the
+     * remaining results Solr did not return are hydrated
      */
     private List<SearchResult> combineAndRankResults(
-            List<Document> lexicalResults,
-            List<Document> semanticResults,
+            List<SearchResult> lexicalResults,
+            List<SemanticHit> semanticResults,
             Double lexicalWeight,
-            Double semanticWeight) {
+            Double semanticWeight,
+            int maxResults,
+            SearchTrace trace) {
 
+        SearchTrace.Stage stage = trace.stage("combine_and_rank");
         Map<String, SearchResult> resultMap = new HashMap<>();
+        Map<SearchResult, SemanticHit> pendingHydration = new IdentityHashMap<>();
+        double maxLexicalScore = lexicalResults.stream()
+                .map(SearchResult::getScore)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .max()
+                .orElse(0.0);
 
         // Add lexical results with weighted scores
         for (int i = 0; i < lexicalResults.size(); i++) {
-            Document doc = lexicalResults.get(i);
-            double normalizedScore = 1.0 - (i * 0.1); // Normalize based on position
+            Document doc = lexicalResults.get(i).getDocument();
+            Double solrScore = lexicalResults.get(i).getScore();
+            double normalizedScore = solrScore != null && maxLexicalScore > 0
+                    ? solrScore / maxLexicalScore // Normalize by the best Solr score
+                    : 1.0 / (i + 1); // Normalize based on position
             double weightedScore = normalizedScore * lexicalWeight;
 
             resultMap.compute(doc.getId(), (id, existing) -> {
@@ -90,14 +142,21 @@ public class HybridSearchService {
         }
 
         // Add semantic results with weighted scores
-        for (int i = 0; i < semanticResults.size(); i++) {
-            Document doc = semanticResults.get(i);
-            double normalizedScore = 1.0 - (i * 0.1); // Normalize based on position
+        double maxSemanticScore = semanticResults.stream()
+                .mapToDouble(SemanticHit::getScore)
+                .max()
+                .orElse(0.0);
+        for (SemanticHit hit : semanticResults) {
+            double normalizedScore = maxSemanticScore > 0
+                    ? Math.max(0.0, hit.getScore()) / maxSemanticScore // Normalize by the best cosine similarity
+                    : 0.0;
             double weightedScore = normalizedScore * semanticWeight;
 
-            resultMap.compute(doc.getId(), (id, existing) -> {
+            resultMap.compute(hit.getId(), (id, existing) -> {
                 if (existing == null) {
-                    return new SearchResult(doc, weightedScore, "semantic");
+                    SearchResult result = new SearchResult(null, weightedScore, "semantic");
+                    pendingHydration.put(result, hit);
+                    return result;
                 } else {
                     // Combine scores if document appears in both results
                     existing.setScore(existing.getScore() + weightedScore);
@@ -107,10 +166,25 @@ public class HybridSearchService {
             });
         }
 
-        // Sort by combined score (descending) and return
-        return resultMap.values().stream()
+        // Sort by combined score (descending) and keep the top maxResults
+        List<SearchResult> rankedResults = resultMap.values().stream()
                 .sorted(Comparator.comparing(SearchResult::getScore).reversed())
+                .limit(maxResults)
                 .collect(Collectors.toList());
+        stage.end(rankedResults.size());
+
+        // Fetch documents only for the kept semantic-only results, Solr already returned the rest
+        SearchTrace.Stage hydrateStage = trace.stage("hydrate");
+        int hydrated = 0;
+        for (SearchResult result : rankedResults) {
+            SemanticHit hit = pendingHydration.get(result);
+            if (hit != null) {
+                result.setDocument(semanticSearchService.hydrate(hit));
+                hydrated++;
+            }
+        }
+        hydrateStage.end(hydrated);
+        return rankedResults;
     }
 
     /**
@@ -0,0 +1,273 @@
+package com.hybrid.search.service.lexical;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.Http2SolrClient;
+import org.apache.solr.client.solrj.util.AsyncListener;
+import org.apache.solr.client.solrj.util.Cancellable;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.util.NamedList;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Replica-aware Solr client
+ * Round-robins requests across several Solr base URLs, fails over to the next replica on I/O errors,
+ * timeouts and 5xx responses and, when hedging is enabled, duplicates a request to another replica once
+ * it has been outstanding for longer than a percentile of recently observed latencies. The first response
+ * wins. Client errors such as a query syntax error fail the request without trying other replicas.
+ */
+@Slf4j
+public class SolrReplicaClient implements AutoCloseable {
+
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final int MIN_SAMPLES_FOR_PERCENTILE = 20;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final List<String> baseUrls;
+    private final List<Http2SolrClient> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final long minHedgeDelayMs;
+    private final ScheduledExecutorService hedgeScheduler;
+
+    private final long[] latencySamplesMs = new long[LATENCY_SAMPLES];
+    private int sampleCount;
+    private volatile long hedgeDelayMs;
+
+    public SolrReplicaClient(List<String> baseUrls, long connectTimeoutMs, long idleTimeoutMs, long requestTimeoutMs,
+                             boolean http1, boolean hedgeEnabled, double hedgePercentile, long minHedgeDelayMs) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one Solr base URL is required");
+        }
+        this.baseUrls = List.copyOf(baseUrls);
+        this.replicas = baseUrls.stream()
+                .map(url -> new Http2SolrClient.Builder(url)
+                        .withConnectionTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                        .withIdleTimeout(idleTimeoutMs, TimeUnit.MILLISECONDS)
+                        .withRequestTimeout(requestTimeoutMs, TimeUnit.MILLISECONDS)
+                        .useHttp1_1(http1)
+                        .build())
+                .collect(Collectors.toList());
+        this.hedgeEnabled = hedgeEnabled && replicas.size() > 1;
+        this.hedgePercentile = hedgePercentile;
+        this.minHedgeDelayMs = minHedgeDelayMs;
+        this.hedgeDelayMs = minHedgeDelayMs;
+        this.hedgeScheduler = this.hedgeEnabled
+                ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "solr-hedge-scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * Parses a comma separated list of Solr base URLs
+     */
+    public static List<String> parseUrls(String urls) {
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sends a request to the next replica, failing over and hedging as configured
+     * Each replica attempt gets its own request from the factory, so per-response state such as
+     * a streaming callback is never shared between a hedged request and its duplicate
+     */
+    public <T> CompletableFuture<T> requestAsync(Supplier<? extends RequestAttempt<T>> attempts, String collection) {
+        HedgedRequest<T> hedgedRequest = new HedgedRequest<>(attempts, collection, nextIndex());
+        hedgedRequest.sendNext();
+
+        if (hedgeEnabled) {
+            long delayMs = hedgeDelayMs;
+            ScheduledFuture<?> hedge = hedgeScheduler.schedule(() -> {
+                if (!hedgedRequest.result.isDone() && hedgedRequest.sent.get() < replicas.size()) {
+                    log.debug("Hedging Solr request after {} ms", delayMs);
+                    hedgedRequest.sendNext();
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+            hedgedRequest.result.whenComplete((response, error) -> hedge.cancel(false));
+        }
+        return hedgedRequest.result;
+    }
+
+    /**
+     * Sends a request and waits for the first successful response
+     */
+    public <T> T request(Supplier<? extends RequestAttempt<T>> attempts, String collection) throws SolrServerException, IOException {
+        try {
+            return requestAsync(attempts, collection).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolrServerException("Interrupted while waiting for Solr", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new SolrServerException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the next replica client for requests that are not hedged, such as updates
+     */
+    public SolrClient nextClient() {
+        return replicas.get(nextIndex());
+    }
+
+    private int nextIndex() {
+        return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    /**
+     * Returns true for failures another replica may not share: I/O errors, timeouts and 5xx responses
+     */
+    static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SolrException) {
+                return ((SolrException) cause).code() >= 500;
+            }
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long currentHedgeDelayMs() {
+        return hedgeDelayMs;
+    }
+
+    /**
+     * Records the latency of a winning attempt and periodically recomputes the hedge delay from the sample window
+     */
+    private synchronized void recordLatency(long latencyMs) {
+        latencySamplesMs[sampleCount % LATENCY_SAMPLES] = latencyMs;
+        sampleCount++;
+        if (sampleCount >= MIN_SAMPLES_FOR_PERCENTILE && sampleCount % RECOMPUTE_EVERY == 0) {
+            long[] samples = Arrays.copyOf(latencySamplesMs, Math.min(sampleCount, LATENCY_SAMPLES));
+            Arrays.sort(samples);
+            int index = (int) Math.ceil(hedgePercentile / 100.0 * samples.length) - 1;
+            long percentile = samples[Math.max(0, Math.min(index, samples.length - 1))];
+            hedgeDelayMs = Math.max(minHedgeDelayMs, percentile);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (hedgeScheduler != null) {
+            hedgeScheduler.shutdownNow();
+        }
+        for (Http2SolrClient replica : replicas) {
+            try {
+                replica.close();
+            } catch (Exception e) {
+                log.debug("Error closing Solr client", e);
+            }
+        }
+    }
+
+    /**
+     * One attempt of a request against a single replica, turning that replica's response into a result
+     */
+    public interface RequestAttempt<T> {
+        SolrRequest<?> getRequest();
+
+        T toResult(NamedList<Object> response);
+    }
+
+    /**
+     * A single logical request, possibly sent to more than one replica
+     */
+    private class HedgedRequest<T> {
+        final Supplier<? extends RequestAttempt<T>> attempts;
+        final String collection;
+        final int firstReplica;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger sent = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final Queue<Cancellable> inFlight = new ConcurrentLinkedQueue<>();
+
+        HedgedRequest(Supplier<? extends RequestAttempt<T>> attempts, String collection, int firstReplica) {
+            this.attempts = attempts;
+            this.collection = collection;
+            this.firstReplica = firstReplica;
+        }
+
+        void sendNext() {
+            int attempt;
+            do {
+                attempt = sent.get();
+                if (attempt >= replicas.size()) {
+                    return;
+                }
+            } while (!sent.compareAndSet(attempt, attempt + 1));
+            int replicaIndex = (firstReplica + attempt) % replicas.size();
+            RequestAttempt<T> requestAttempt = attempts.get();
+            long attemptStartNanos = System.nanoTime();
+            Cancellable cancellable = replicas.get(replicaIndex).asyncRequest(requestAttempt.getRequest(), collection,
+                    new AsyncListener<NamedList<Object>>() {
+                        @Override
+                        public void onSuccess(NamedList<Object> response) {
+                            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attemptStartNanos);
+                            T value;
+                            try {
+                                value = requestAttempt.toResult(response);
+                            } catch (RuntimeException e) {
+                                onFailure(e);
+                                return;
+                            }
+                            if (result.complete(value)) {
+                                // Only the winner is sampled; losing duplicates would skew the percentile upwards
+                                recordLatency(latencyMs);
+                                inFlight.forEach(Cancellable::cancel);
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Throwable throwable) {
+                            if (result.isDone()) {
+                                return; // Cancelled duplicate of a request that already completed
+                            }
+                            if (!isRetryable(throwable)) {
+                                log.debug("Solr request rejected by replica {}: {}", baseUrls.get(replicaIndex), throwable.getMessage());
+                                if (result.completeExceptionally(throwable)) {
+                                    inFlight.forEach(Cancellable::cancel);
+                                }
+                                return;
+                            }
+                            log.warn("Solr replica {} failed: {}", baseUrls.get(replicaIndex), throwable.getMessage());
+                            if (failed.incrementAndGet() < sent.get()) {
+                                return; // Another attempt is still in flight
+                            }
+                            if (sent.get() < replicas.size()) {
+                                sendNext();
+                            } else {
+                                result.completeExceptionally(throwable);
+                            }
+                        }
+                    });
+            inFlight.add(cancellable);
+        }
+    }
+}
@@ -1,20 +1,21 @@
 package com.hybrid.search.service.lexical;
 
+import com.hybrid.search.dto.SearchResult;
 import com.hybrid.search.model.Document;
+import com.hybrid.search.service.tracing.SearchTrace;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
-import org.apache.solr.client.solrj.impl.Http2SolrClient;
-import org.apache.solr.client.solrj.response.QueryResponse;
-import org.apache.solr.common.SolrDocument;
-import org.apache.solr.common.SolrDocumentList;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Core Search Service - Implements lexical search using Apache Solr
@@ -23,49 +24,92 @@ import java.util.List;
 @Service
 public class SolrSearchService {
 
-    private final SolrClient solrClient;
+    private final SolrReplicaClient solrClient;
     private final String collection;
 
     public SolrSearchService(@Value("${solr.url:http://localhost:8983/solr}") String solrUrl,
-                            @Value("${solr.collection:hybrid_search}") String collection) {
+                            @Value("${solr.urls:}") String solrUrls,
+                            @Value("${solr.collection:hybrid_search}") String collection,
+                            @Value("${solr.connect-timeout-ms:2000}") long connectTimeoutMs,
+                            @Value("${solr.idle-timeout-ms:30000}") long idleTimeoutMs,
+                            @Value("${solr.request-timeout-ms:5000}") long requestTimeoutMs,
+                            @Value("${solr.http1:false}") boolean http1,
+                            @Value("${solr.hedge.enabled:false}") boolean hedgeEnabled,
+                            @Value("${solr.hedge.percentile:95}") double hedgePercentile,
+                            @Value("${solr.hedge.min-delay-ms:10}") long minHedgeDelayMs) {
         this.collection = collection;
-        this.solrClient = new Http2SolrClient.Builder(solrUrl).build();
-        log.info("Initialized Solr client for collection: {}", collection);
+        List<String> baseUrls = SolrReplicaClient.parseUrls(solrUrls.isBlank() ? solrUrl : solrUrls);
+        this.solrClient = new SolrReplicaClient(baseUrls, connectTimeoutMs, idleTimeoutMs, requestTimeoutMs, http1,
+                hedgeEnabled, hedgePercentile, minHedgeDelayMs);
+        log.info("Initialized Solr client for collection: {} across {} replicas", collection, baseUrls.size());
     }
 
     /**
      * Performs lexical search on Solr index
      */
-    public List<Document> search(String query, int maxResults) {
+    public List<Document> search(String query, int maxResults, SearchTrace trace) {
+        return toDocuments(searchWithScores(query, maxResults, trace));
+    }
+
+    /**
+     * Performs lexical search without blocking the calling thread
+     */
+    public CompletableFuture<List<Document>> searchAsync(String query, int maxResults, SearchTrace trace) {
+        return searchWithScoresAsync(query, maxResults, trace).thenApply(this::toDocuments);
+    }
+
+    /**
+     * Performs lexical search returning each document with its Solr relevance score
+     * Documents are mapped from the javabin stream as they arrive instead of from a materialized SolrDocumentList
+     */
+    public List<SearchResult> searchWithScores(String query, int maxResults, SearchTrace trace) {
+        SearchTrace.Stage stage = trace.stage("solr_search");
         try {
-            SolrQuery solrQuery = new SolrQuery();
-            solrQuery.setQuery(query);
-            solrQuery.setRows(maxResults);
-            solrQuery.setFields("id", "title", "content", "type", "category");
-
-            QueryResponse response = solrClient.query(collection, solrQuery);
-            SolrDocumentList documents = response.getResults();
-
-            List<Document> results = new ArrayList<>();
-            for (SolrDocument doc : documents) {
-                Document document = new Document(
-                    (String) doc.getFieldValue("id"),
-                    (String) doc.getFieldValue("title"),
-                    (String) doc.getFieldValue("content"),
-                    (String) doc.getFieldValue("type"),
-                    (String) doc.getFieldValue("category")
-                );
-                results.add(document);
-            }
+            List<SearchResult> results = solrClient.request(() -> new StreamingResultCollector(buildQuery(query, maxResults)), collection);
 
-            log.info("Solr search returned {} results for query: {}", results.size(), query);
+            log.debug("Solr search returned {} results for query: {}", results.size(), query);
+            stage.end(results.size());
             return results;
         } catch (SolrServerException | IOException e) {
             log.error("Error performing Solr search", e);
+            stage.end(0);
             return new ArrayList<>();
         }
     }
 
+    /**
+     * Performs scored lexical search without blocking the calling thread
+     * Documents are mapped on the HTTP/2 client's thread while the response is parsed
+     */
+    public CompletableFuture<List<SearchResult>> searchWithScoresAsync(String query, int maxResults, SearchTrace trace) {
+        SearchTrace.Stage stage = trace.stage("solr_search");
+        return solrClient.requestAsync(() -> new StreamingResultCollector(buildQuery(query, maxResults)), collection)
+                .handle((results, error) -> {
+                    if (error != null) {
+                        log.error("Error performing Solr search", error);
+                        stage.end(0);
+                        return new ArrayList<>();
+                    }
+                    log.debug("Solr search returned {} results for query: {}", results.size(), query);
+                    stage.end(results.size());
+                    return results;
+                });
+    }
+
+    private SolrQuery buildQuery(String query, int maxResults) {
+        SolrQuery solrQuery = new SolrQuery();
+        solrQuery.setQuery(query);
+        solrQuery.setRows(maxResults);
+        solrQuery.setFields("id", "title", "content", "type", "category", "score");
+        return solrQuery;
+    }
+
+    private List<Document> toDocuments(List<SearchResult> results) {
+        return results.stream()
+                .map(SearchResult::getDocument)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Indexes a document in Solr
      */
@@ -78,8 +122,9 @@ public class SolrSearchService {
             solrDoc.addField("type", document.getType());
             solrDoc.addField("category", document.getCategory());
 
-            solrClient.add(collection, solrDoc);
-            solrClient.commit(collection);
+            SolrClient updateClient = solrClient.nextClient();
+            updateClient.add(collection, solrDoc);
+            updateClient.commit(collection);
             log.info("Indexed document with id: {}", document.getId());
         } catch (SolrServerException | IOException e) {
             log.error("Error indexing document", e);
@@ -101,12 +146,17 @@ public class SolrSearchService {
                 solrDoc.addField("category", doc.getCategory());
                 solrDocs.add(solrDoc);
             }
-            solrClient.add(collection, solrDocs);
-            solrClient.commit(collection);
+            SolrClient updateClient = solrClient.nextClient();
+            updateClient.add(collection, solrDocs);
+            updateClient.commit(collection);
             log.info("Indexed {} documents", documents.size());
         } catch (SolrServerException | IOException e) {
             log.error("Error indexing documents", e);
         }
     }
-}
 
+    @PreDestroy
+    public void close() {
+        solrClient.close();
+    }
+}
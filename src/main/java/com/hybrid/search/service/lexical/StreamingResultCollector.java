@@ -0,0 +1,62 @@
+package com.hybrid.search.service.lexical;
+
+import com.hybrid.search.dto.SearchResult;
+import com.hybrid.search.model.Document;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.StreamingResponseCallback;
+import org.apache.solr.client.solrj.impl.StreamingBinaryResponseParser;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.util.NamedList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps Solr documents to scored results while the javabin response is being parsed
+ * Documents are never collected into a SolrDocumentList, so each one can be discarded as soon as it is mapped
+ */
+class StreamingResultCollector extends StreamingResponseCallback
+        implements SolrReplicaClient.RequestAttempt<List<SearchResult>> {
+
+    private final QueryRequest request;
+    private List<SearchResult> results;
+
+    StreamingResultCollector(SolrQuery query) {
+        this.request = new QueryRequest(query);
+        this.request.setStreamingResponseCallback(this);
+        this.request.setResponseParser(new StreamingBinaryResponseParser(this));
+        this.results = new ArrayList<>();
+    }
+
+    @Override
+    public void streamDocListInfo(long numFound, long start, Float maxScore) {
+        Integer rows = request.getParams().getInt("rows");
+        long expected = rows != null ? Math.min(rows, numFound - start) : numFound - start;
+        results = new ArrayList<>((int) Math.max(0, Math.min(expected, Integer.MAX_VALUE)));
+    }
+
+    @Override
+    public void streamSolrDocument(SolrDocument doc) {
+        Object score = doc.getFieldValue("score");
+        Document document = new Document(
+            (String) doc.getFieldValue("id"),
+            (String) doc.getFieldValue("title"),
+            (String) doc.getFieldValue("content"),
+            (String) doc.getFieldValue("type"),
+            (String) doc.getFieldValue("category")
+        );
+        results.add(new SearchResult(document, score != null ? ((Number) score).doubleValue() : null, "lexical"));
+    }
+
+    @Override
+    public SolrRequest<?> getRequest() {
+        return request;
+    }
+
+    @Override
+    public List<SearchResult> toResult(NamedList<Object> response) {
+        return results;
+    }
+}
@@ -1,21 +1,31 @@
 package com.hybrid.search.service.query;
 
+import com.hybrid.search.service.tracing.SearchTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.StreamingChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Query Rewriting Service - Uses LLM via Spring AI to rephrase/expand user queries
+ * The async variant streams the completion over the reactive client, so no thread waits on the LLM
  */
 @Slf4j
 @Service
 public class QueryRewritingService {
 
     private final ChatClient chatClient;
+    private final StreamingChatClient streamingChatClient;
+    private final Duration asyncTimeout;
     private static final String QUERY_REWRITE_PROMPT = """
             You are a search query optimization assistant. Your task is to improve search queries 
             for better retrieval results in both lexical (keyword-based) and semantic (meaning-based) search systems.
@@ -31,27 +41,65 @@ public class QueryRewritingService {
             Return only the improved query, without any additional explanation or formatting.
             """;
 
-    public QueryRewritingService(ChatClient chatClient) {
+    public QueryRewritingService(ChatClient chatClient, StreamingChatClient streamingChatClient,
+                                 @Value("${search.rewrite.timeout-ms:10000}") long timeoutMs) {
         this.chatClient = chatClient;
+        this.streamingChatClient = streamingChatClient;
+        this.asyncTimeout = Duration.ofMillis(timeoutMs);
         log.info("Initialized Query Rewriting Service");
     }
 
     /**
      * Rewrites/expands the user query using LLM to enhance search accuracy
      */
-    public String rewriteQuery(String originalQuery) {
+    public String rewriteQuery(String originalQuery, SearchTrace trace) {
+        SearchTrace.Stage stage = trace.stage("rewrite_query");
         try {
-            PromptTemplate promptTemplate = new PromptTemplate(QUERY_REWRITE_PROMPT);
-            Prompt prompt = promptTemplate.create(Map.of("query", originalQuery));
-            
-            String rewrittenQuery = chatClient.call(prompt).getResult().getOutput().getContent();
-            log.info("Rewritten query: '{}' -> '{}'", originalQuery, rewrittenQuery);
+            String rewrittenQuery = chatClient.call(prompt(originalQuery)).getResult().getOutput().getContent();
+            log.debug("Rewritten query: '{}' -> '{}'", originalQuery, rewrittenQuery);
             
             return rewrittenQuery.trim();
         } catch (Exception e) {
             log.error("Error rewriting query, returning original", e);
             return originalQuery;
+        } finally {
+            stage.end(1);
         }
     }
-}
 
+    /**
+     * Rewrites the user query without holding a thread during the LLM call
+     * The streamed completion is joined once it ends; on error or timeout the original query is used
+     */
+    public CompletableFuture<String> rewriteQueryAsync(String originalQuery, SearchTrace trace) {
+        SearchTrace.Stage stage = trace.stage("rewrite_query");
+        return streamingChatClient.stream(prompt(originalQuery))
+                .map(QueryRewritingService::content)
+                .collect(Collectors.joining())
+                .timeout(asyncTimeout)
+                .toFuture()
+                .handle((rewrittenQuery, error) -> {
+                    stage.end(1);
+                    if (error != null) {
+                        log.error("Error rewriting query, returning original", error);
+                        return originalQuery;
+                    }
+                    log.debug("Rewritten query: '{}' -> '{}'", originalQuery, rewrittenQuery);
+                    return rewrittenQuery.isBlank() ? originalQuery : rewrittenQuery.trim();
+                });
+    }
+
+    private static Prompt prompt(String originalQuery) {
+        return new PromptTemplate(QUERY_REWRITE_PROMPT).create(Map.of("query", originalQuery));
+    }
+
+    /**
+     * Returns the text of a streamed chunk; the final chunk may carry no content
+     */
+    private static String content(ChatResponse chunk) {
+        if (chunk.getResult() == null || chunk.getResult().getOutput().getContent() == null) {
+            return "";
+        }
+        return chunk.getResult().getOutput().getContent();
+    }
+}
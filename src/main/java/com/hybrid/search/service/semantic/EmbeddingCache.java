@@ -0,0 +1,318 @@
+package com.hybrid.search.service.semantic;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embedding Cache - Remembers document embeddings keyed by a hash of the embedded text and model name
+ * Entries are appended to a local file and reloaded on startup so unchanged documents are never re-embedded.
+ * Only each key's file offset is kept on the heap; vectors are read back from the file on a hit.
+ * The file is locked while open, so every node needs its own cache path.
+ */
+@Slf4j
+@Service
+public class EmbeddingCache {
+
+    private static final int MAGIC = 0x48534543; // "HSEC"
+    private static final int VERSION = 2;
+    private static final int HEADER_LENGTH = 8;
+    private static final int MAX_FIELD_LENGTH = 0xFFFF;
+
+    private final String model;
+    private final Path path;
+    private final Map<String, Long> offsets = new HashMap<>(); // Key -> file offset of the entry's dimensions
+    private boolean enabled;
+    private FileChannel channel;
+    private FileLock lock;
+
+    public EmbeddingCache(@Value("${embedding.cache.enabled:true}") boolean enabled,
+                          @Value("${embedding.cache.path:data/embedding-cache-${server.port:8080}.bin}") String path,
+                          @Value("${spring.ai.openai.embedding.options.model:text-embedding-3-small}") String model) {
+        this.model = model;
+        this.path = Paths.get(path);
+        if (enabled) {
+            this.enabled = open();
+        }
+        if (this.enabled) {
+            log.info("Initialized embedding cache at {} with {} entries", this.path, offsets.size());
+        }
+    }
+
+    /**
+     * Computes the cache key for a text embedded with the configured model
+     */
+    public String key(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the cached embedding for a key, read from the cache file, or null on a miss
+     */
+    public synchronized List<Double> get(String key) {
+        Long offset = enabled ? offsets.get(key) : null;
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return readVector(channel, offset);
+        } catch (IOException e) {
+            log.error("Error reading embedding cache entry, treating it as a miss", e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the embedding of a document's text by appending it to the cache file
+     * The document id is recorded with the entry so compaction can tell when the document has moved on
+     */
+    public synchronized void put(String key, String documentId, List<Double> embedding) {
+        if (!enabled || offsets.containsKey(key)) {
+            return;
+        }
+        if (documentId.getBytes(StandardCharsets.UTF_8).length > MAX_FIELD_LENGTH) {
+            log.warn("Not caching the embedding of document {}: id too long", documentId);
+            return;
+        }
+        try {
+            offsets.put(key, writeEntry(channel, key, documentId, embedding));
+        } catch (IOException e) {
+            log.error("Error writing embedding cache, disabling it", e);
+            enabled = false;
+            closeQuietly();
+        }
+    }
+
+    public synchronized int size() {
+        return offsets.size();
+    }
+
+    /**
+     * Rewrites the cache file without entries superseded by re-indexed documents
+     * An entry is dropped only if the document it was written for is among indexedIds and its key is not in
+     * liveKeys, i.e. the document has since been indexed with different text. Entries of documents not
+     * (yet) indexed by this process are kept, so compacting before a full re-index loses nothing.
+     * Returns the number of entries dropped.
+     */
+    public synchronized int compact(Set<String> liveKeys, Set<String> indexedIds) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        int[] kept = {0};
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(out);
+            scan((key, documentId, offset) -> {
+                if (liveKeys.contains(key) || !indexedIds.contains(documentId)) {
+                    writeEntry(out, key, documentId, readVector(channel, offset));
+                    kept[0]++;
+                }
+            });
+            out.force(true);
+        }
+
+        int dropped = offsets.size() - kept[0];
+        closeQuietly();
+        try {
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            offsets.clear();
+            enabled = open();
+        }
+        log.info("Compacted embedding cache at {}: kept {} entries, dropped {}", path, kept[0], dropped);
+        return dropped;
+    }
+
+    /**
+     * Opens and locks the cache file, then indexes the offsets of its entries
+     * A file without the current header is discarded, and a record cut short by a crash is truncated
+     * so later appends stay readable
+     */
+    private boolean open() {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                log.error("Embedding cache {} is in use by another process, continuing without the cache. "
+                        + "Give each node its own embedding.cache.path", path);
+                closeQuietly();
+                return false;
+            }
+
+            if (!hasHeader()) {
+                if (channel.size() > 0) {
+                    log.warn("Discarding embedding cache {} written in an older format", path);
+                    channel.truncate(0);
+                }
+                writeHeader(channel);
+            }
+            long validLength = scan((key, documentId, offset) -> offsets.put(key, offset));
+            if (channel.size() > validLength) {
+                log.warn("Truncating {} bytes of incomplete embedding cache data", channel.size() - validLength);
+                channel.truncate(validLength);
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Error opening embedding cache at {}, continuing without the cache", path, e);
+            closeQuietly();
+            return false;
+        }
+    }
+
+    private boolean hasHeader() throws IOException {
+        if (channel.size() < HEADER_LENGTH) {
+            return false;
+        }
+        ByteBuffer header = readFully(channel, 0, HEADER_LENGTH);
+        return header.getInt() == MAGIC && header.getInt() == VERSION;
+    }
+
+    private static void writeHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            target.write(header, header.position());
+        }
+    }
+
+    /**
+     * Visits every complete entry of the cache file and returns the length of the valid data
+     */
+    private long scan(EntryVisitor visitor) throws IOException {
+        long validLength = HEADER_LENGTH;
+        // Not closed here: closing the stream would close the cache file channel
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(HEADER_LENGTH))));
+        try {
+            while (true) {
+                byte[] key = readField(in);
+                byte[] documentId = readField(in);
+                int dimensions = in.readInt();
+                in.skipNBytes(8L * dimensions);
+
+                long offset = validLength + 2 + key.length + 2 + documentId.length;
+                visitor.visit(new String(key, StandardCharsets.US_ASCII), new String(documentId, StandardCharsets.UTF_8), offset);
+                validLength = offset + 4 + 8L * dimensions;
+            }
+        } catch (EOFException e) {
+            return validLength;
+        }
+    }
+
+    private static byte[] readField(DataInputStream in) throws IOException {
+        byte[] field = new byte[in.readUnsignedShort()];
+        in.readFully(field);
+        return field;
+    }
+
+    /**
+     * Appends an entry (key, document id, dimensions, doubles) and returns the offset of its dimensions
+     * Keys and ids are prefixed with their unsigned 16-bit byte length
+     */
+    private static long writeEntry(FileChannel target, String key, String documentId, List<Double> embedding) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.US_ASCII);
+        byte[] idBytes = documentId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(2 + keyBytes.length + 2 + idBytes.length + 4 + 8 * embedding.size());
+        buffer.putShort((short) keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.putShort((short) idBytes.length);
+        buffer.put(idBytes);
+        buffer.putInt(embedding.size());
+        for (Double value : embedding) {
+            buffer.putDouble(value);
+        }
+        buffer.flip();
+
+        long start = target.size();
+        while (buffer.hasRemaining()) {
+            target.write(buffer, start + buffer.position());
+        }
+        return start + 2 + keyBytes.length + 2 + idBytes.length;
+    }
+    private static List<Double> readVector(FileChannel source, long offset) throws IOException {
+        ByteBuffer header = readFully(source, offset, 4);
+        int dimensions = header.getInt();
+        ByteBuffer data = readFully(source, offset + 4, 8 * dimensions);
+        List<Double> embedding = new ArrayList<>(dimensions);
+        for (int i = 0; i < dimensions; i++) {
+            embedding.add(data.getDouble());
+        }
+        return embedding;
+    }
+
+    private static ByteBuffer readFully(FileChannel source, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Embedding cache entry extends past end of file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void closeQuietly() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.debug("Error closing embedding cache", e);
+        } finally {
+            lock = null;
+            channel = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    @FunctionalInterface
+    private interface EntryVisitor {
+        void visit(String key, String documentId, long offset) throws IOException;
+    }
+}
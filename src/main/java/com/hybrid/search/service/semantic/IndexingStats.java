@@ -0,0 +1,29 @@
+package com.hybrid.search.service.semantic;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counts of how documents were handled by a vector indexing call
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexingStats {
+    private int embedded;  // Embeddings requested from the embedding API
+    private int skipped;   // Embeddings reused from the embedding cache
+    private int forwarded; // Documents acknowledged by the peer node owning them
+    private int failed;    // Documents that could not be indexed locally or forwarded
+
+    public void add(IndexingStats other) {
+        embedded += other.embedded;
+        skipped += other.skipped;
+        forwarded += other.forwarded;
+        failed += other.failed;
+    }
+
+    public boolean hasFailures() {
+        return failed > 0;
+    }
+}
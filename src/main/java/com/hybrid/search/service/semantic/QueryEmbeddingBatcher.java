@@ -0,0 +1,164 @@
+package com.hybrid.search.service.semantic;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query Embedding Batcher - Coalesces concurrent query embedding requests into single list calls
+ * Requests arriving within a short window (up to a maximum batch size) share one embedding API call,
+ * and identical query texts within a batch are embedded once
+ */
+@Slf4j
+@Service
+public class QueryEmbeddingBatcher {
+
+    private final EmbeddingClient embeddingClient;
+    private final Executor embeddingExecutor;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long timeoutMs;
+    private final BlockingQueue<PendingEmbedding> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSizeSummary;
+    private final Timer queueWaitTimer;
+    private final Thread dispatcher;
+
+    public QueryEmbeddingBatcher(EmbeddingClient embeddingClient,
+                                 @Qualifier("embeddingExecutor") Executor embeddingExecutor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${embedding.batch.enabled:true}") boolean enabled,
+                                 @Value("${embedding.batch.window-ms:5}") long windowMs,
+                                 @Value("${embedding.batch.max-size:32}") int maxBatchSize,
+                                 @Value("${embedding.batch.timeout-ms:10000}") long timeoutMs) {
+        this.embeddingClient = embeddingClient;
+        this.embeddingExecutor = embeddingExecutor;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMs = timeoutMs;
+        this.batchSizeSummary = DistributionSummary.builder("embedding.query.batch.size")
+                .description("Number of queries sent in one embedding call")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("embedding.query.queue.wait")
+                .description("Time a query waited for its embedding batch to be dispatched")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.dispatcher = new Thread(this::dispatchLoop, "query-embedding-batcher");
+            this.dispatcher.setDaemon(true);
+            this.dispatcher.start();
+            log.info("Initialized query embedding batcher with {} ms window and max batch size {}", windowMs, maxBatchSize);
+        } else {
+            this.dispatcher = null;
+        }
+    }
+
+    /**
+     * Returns a future completed with the query's embedding once its batch has been embedded
+     * The future fails with a TimeoutException if no embedding arrives within the configured timeout
+     */
+    public CompletableFuture<List<Double>> embed(String query) {
+        if (!enabled) {
+            return CompletableFuture.supplyAsync(() -> embeddingClient.embed(query), embeddingExecutor)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        PendingEmbedding pending = new PendingEmbedding(query);
+        queue.add(pending);
+        return pending.future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Collects requests from the first arrival until the window closes or the batch is full,
+     * then hands the batch to the embedding executor so the next batch can start collecting
+     * A batch that cannot be dispatched (e.g. rejected by a full executor) fails its own futures
+     * and the loop keeps running, so later requests are never left waiting on a dead dispatcher
+     */
+    private void dispatchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<PendingEmbedding> batch = new ArrayList<>();
+                batch.add(queue.take());
+                try {
+                    long deadline = System.nanoTime() + windowNanos;
+                    while (batch.size() < maxBatchSize) {
+                        PendingEmbedding next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    embeddingExecutor.execute(() -> embedBatch(batch));
+                } catch (InterruptedException e) {
+                    batch.forEach(pending -> pending.future.completeExceptionally(new IllegalStateException("Query embedding batcher is shut down")));
+                    throw e;
+                } catch (RuntimeException e) {
+                    log.error("Error dispatching batch of {} queries", batch.size(), e);
+                    batch.forEach(pending -> pending.future.completeExceptionally(e));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void embedBatch(List<PendingEmbedding> batch) {
+        long dispatchedAt = System.nanoTime();
+        Map<String, List<PendingEmbedding>> byQuery = new LinkedHashMap<>();
+        for (PendingEmbedding pending : batch) {
+            queueWaitTimer.record(dispatchedAt - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+            byQuery.computeIfAbsent(pending.query, key -> new ArrayList<>()).add(pending);
+        }
+        batchSizeSummary.record(byQuery.size());
+
+        try {
+            List<String> queries = new ArrayList<>(byQuery.keySet());
+            List<List<Double>> embeddings = embeddingClient.embed(queries);
+            for (int i = 0; i < queries.size(); i++) {
+                List<Double> embedding = embeddings.get(i);
+                byQuery.get(queries.get(i)).forEach(pending -> pending.future.complete(embedding));
+            }
+            log.debug("Embedded batch of {} queries for {} requests", queries.size(), batch.size());
+        } catch (Exception e) {
+            log.error("Error embedding batch of {} queries", byQuery.size(), e);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        PendingEmbedding pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException("Query embedding batcher is shut down"));
+        }
+    }
+
+    private static class PendingEmbedding {
+        final String query;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<List<Double>> future = new CompletableFuture<>();
+
+        PendingEmbedding(String query) {
+            this.query = query;
+        }
+    }
+}
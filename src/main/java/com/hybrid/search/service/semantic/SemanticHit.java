@@ -0,0 +1,27 @@
+package com.hybrid.search.service.semantic;
+
+import com.hybrid.search.model.Document;
+
+/**
+ * A semantic search hit carrying only the document id and its ordinal in the local document store
+ * The document is hydrated after fusion, and only for hits that need it; hits from peer shards
+ * arrive already hydrated and have no local ordinal
+ */
+public class SemanticHit {
+    private final String id;
+    private final double score;
+    private final int ordinal;
+    private final Document document;
+
+    SemanticHit(String id, double score, int ordinal, Document document) {
+        this.id = id;
+        this.score = score;
+        this.ordinal = ordinal;
+        this.document = document;
+    }
+
+    public String getId() { return id; }
+    public double getScore() { return score; }
+    int getOrdinal() { return ordinal; }
+    Document getDocument() { return document; }
+}
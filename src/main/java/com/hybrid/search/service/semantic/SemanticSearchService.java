@@ -1,15 +1,27 @@
 package com.hybrid.search.service.semantic;
 
+import com.hybrid.search.dto.SearchResult;
 import com.hybrid.search.model.Document;
+import com.hybrid.search.service.cluster.ShardCoordinator;
+import com.hybrid.search.service.semantic.kernel.VectorKernels;
+import com.hybrid.search.service.store.DocumentStore;
+import com.hybrid.search.service.tracing.SearchTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.embedding.EmbeddingClient;
-import org.springframework.ai.vectorstore.SearchRequest;
-import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -19,96 +31,262 @@ import java.util.stream.Collectors;
 @Service
 public class SemanticSearchService {
 
-    private final VectorStore vectorStore;
+    private final SimpleInMemoryVectorStore vectorStore;
+    private final DocumentStore documentStore;
     private final EmbeddingClient embeddingClient;
+    private final ShardCoordinator shardCoordinator;
+    private final EmbeddingCache embeddingCache;
+    private final QueryEmbeddingBatcher queryEmbeddingBatcher;
+    private final Executor scanExecutor;
 
-    public SemanticSearchService(EmbeddingClient embeddingClient) {
+    public SemanticSearchService(EmbeddingClient embeddingClient, ShardCoordinator shardCoordinator,
+                                 EmbeddingCache embeddingCache, QueryEmbeddingBatcher queryEmbeddingBatcher,
+                                 @Qualifier("scanExecutor") Executor scanExecutor,
+                                 DocumentStore documentStore,
+                                 @Value("${vector.kernel:auto}") String vectorKernel) {
         this.embeddingClient = embeddingClient;
-        this.vectorStore = new SimpleInMemoryVectorStore(embeddingClient);
+        this.documentStore = documentStore;
+        this.shardCoordinator = shardCoordinator;
+        this.embeddingCache = embeddingCache;
+        this.queryEmbeddingBatcher = queryEmbeddingBatcher;
+        this.scanExecutor = scanExecutor;
+        this.vectorStore = new SimpleInMemoryVectorStore(VectorKernels.select(vectorKernel));
         log.info("Initialized Semantic Search Service with in-memory vector store");
     }
 
     /**
-     * Performs semantic search using vector embeddings
+     * Performs semantic search using vector embeddings, hydrating every hit
      */
-    public List<com.hybrid.search.model.Document> search(String query, int maxResults) {
-        try {
-            SearchRequest searchRequest = SearchRequest.query(query)
-                    .withTopK(maxResults);
+    public List<Document> search(String query, int maxResults, SearchTrace trace) {
+        return hydrate(searchHits(query, maxResults, trace), trace);
+    }
 
-            List<org.springframework.ai.document.Document> results = vectorStore.similaritySearch(searchRequest);
+    /**
+     * Performs semantic search without blocking the calling thread, hydrating every hit
+     */
+    public CompletableFuture<List<Document>> searchAsync(String query, int maxResults, SearchTrace trace) {
+        return searchHitsAsync(query, maxResults, trace).thenApply(hits -> hydrate(hits, trace));
+    }
 
-            List<com.hybrid.search.model.Document> documents = results.stream()
-                    .map(this::convertToDocument)
-                    .collect(Collectors.toList());
+    /**
+     * Performs semantic search returning unhydrated hits, so callers can fetch documents after fusion
+     * Query embeddings are coalesced with concurrent searches by the query embedding batcher
+     * In cluster mode the query is embedded once, scattered to peer shards and their top-K merged
+     */
+    public List<SemanticHit> searchHits(String query, int maxResults, SearchTrace trace) {
+        try {
+            SearchTrace.Stage embeddingStage = trace.stage("embedding");
+            List<Double> queryEmbedding = null;
+            try {
+                queryEmbedding = queryEmbeddingBatcher.embed(query).join();
+            } finally {
+                // Failed and timed out embeddings are the ones the trace must show
+                embeddingStage.end(queryEmbedding != null ? 1 : 0);
+            }
+
+            // Remote shards are scanned while the local shard is scored
+            CompletableFuture<List<SearchResult>> remoteResults = scatterSearch(queryEmbedding, maxResults, trace);
+            List<SemanticHit> localHits = scanLocalShard(queryEmbedding, maxResults, trace);
 
-            log.info("Semantic search returned {} results for query: {}", documents.size(), query);
-            return documents;
+            List<SemanticHit> hits = mergeTopK(localHits, remoteResults.join(), maxResults);
+            log.debug("Semantic search returned {} results for query: {}", hits.size(), query);
+            return hits;
         } catch (Exception e) {
+            if (isRejected(e)) {
+                throw e; // Executors at capacity surface as 503 rather than as empty results
+            }
             log.error("Error performing semantic search", e);
             return new ArrayList<>();
         }
     }
 
     /**
-     * Indexes a document by generating embeddings and storing in vector store
+     * Performs semantic search returning unhydrated hits without blocking the calling thread
+     * The local scan runs on the scan executor while peer shards are queried
      */
-    public void indexDocument(com.hybrid.search.model.Document document) {
-        try {
-            String content = String.format("Title: %s\nContent: %s\nType: %s\nCategory: %s",
-                    document.getTitle(), document.getContent(), document.getType(), document.getCategory());
-
-            org.springframework.ai.document.Document aiDocument = new org.springframework.ai.document.Document(document.getId(), content, Map.of(
-                    "id", document.getId(),
-                    "title", document.getTitle(),
-                    "type", document.getType(),
-                    "category", document.getCategory()
-            ));
-
-            vectorStore.add(List.of(aiDocument));
-            log.info("Indexed document in vector store with id: {}", document.getId());
-        } catch (Exception e) {
-            log.error("Error indexing document in vector store", e);
+    public CompletableFuture<List<SemanticHit>> searchHitsAsync(String query, int maxResults, SearchTrace trace) {
+        SearchTrace.Stage embeddingStage = trace.stage("embedding");
+        return queryEmbeddingBatcher.embed(query)
+                .whenComplete((queryEmbedding, error) -> embeddingStage.end(queryEmbedding != null ? 1 : 0))
+                .thenCompose(queryEmbedding -> scatterSearch(queryEmbedding, maxResults, trace)
+                        .thenCombine(CompletableFuture.supplyAsync(() -> scanLocalShard(queryEmbedding, maxResults, trace), scanExecutor),
+                                (remoteResults, localHits) -> mergeTopK(localHits, remoteResults, maxResults)))
+                .handle((hits, error) -> {
+                    if (error != null) {
+                        if (isRejected(error)) {
+                            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                        }
+                        log.error("Error performing semantic search", error);
+                        return new ArrayList<>();
+                    }
+                    log.debug("Semantic search returned {} results for query: {}", hits.size(), query);
+                    return hits;
+                });
+    }
+
+    private static boolean isRejected(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fetches the document of a hit from the local document store unless it arrived hydrated
+     */
+    public Document hydrate(SemanticHit hit) {
+        return hit.getDocument() != null ? hit.getDocument() : documentStore.get(hit.getOrdinal());
+    }
+
+    private List<Document> hydrate(List<SemanticHit> hits, SearchTrace trace) {
+        SearchTrace.Stage stage = trace.stage("hydrate");
+        List<Document> documents = hits.stream()
+                .map(this::hydrate)
+                .collect(Collectors.toList());
+        stage.end(documents.size());
+        return documents;
+    }
+
+    private CompletableFuture<List<SearchResult>> scatterSearch(List<Double> queryEmbedding, int maxResults, SearchTrace trace) {
+        if (!shardCoordinator.isEnabled()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        SearchTrace.Stage scatterStage = trace.stage("shard_scatter");
+        return shardCoordinator.scatterSearch(queryEmbedding, maxResults)
+                .whenComplete((results, error) -> scatterStage.end(results != null ? results.size() : 0));
+    }
+
+    private List<SemanticHit> scanLocalShard(List<Double> queryEmbedding, int maxResults, SearchTrace trace) {
+        SearchTrace.Stage scanStage = trace.stage("vector_scan");
+        List<SemanticHit> hits = vectorStore.similaritySearch(queryEmbedding, maxResults).stream()
+                .map(scored -> new SemanticHit(documentStore.getId(scored.ordinal), scored.score, scored.ordinal, null))
+                .collect(Collectors.toList());
+        scanStage.end(hits.size());
+        return hits;
+    }
+
+    /**
+     * Merges local hits with hydrated peer results, keeping the maxResults best scores overall
+     */
+    static List<SemanticHit> mergeTopK(List<SemanticHit> localHits, List<SearchResult> remoteResults, int maxResults) {
+        List<SemanticHit> hits = new ArrayList<>(localHits);
+        for (SearchResult remote : remoteResults) {
+            hits.add(new SemanticHit(remote.getDocument().getId(), remote.getScore(), -1, remote.getDocument()));
         }
+        return hits.stream()
+                .sorted(Comparator.comparingDouble(SemanticHit::getScore).reversed())
+                .limit(maxResults)
+                .collect(Collectors.toList());
     }
 
     /**
-     * Indexes multiple documents in vector store
+     * Scores the documents held by this node against a query embedding, for peer coordinators
      */
-    public void indexDocuments(List<com.hybrid.search.model.Document> documents) {
+    public List<SearchResult> searchLocalShard(List<Double> queryEmbedding, int maxResults) {
+        return vectorStore.similaritySearch(queryEmbedding, maxResults).stream()
+                .map(scored -> new SearchResult(documentStore.get(scored.ordinal), scored.score, "semantic"))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Indexes a document by generating embeddings and storing in vector store
+     */
+    public IndexingStats indexDocument(Document document) {
+        return indexDocuments(List.of(document));
+    }
+
+    /**
+     * Indexes multiple documents, forwarding those owned by peers in cluster mode
+     * Documents count as forwarded only once the owning peer has acknowledged them;
+     * documents that could not be indexed or forwarded are reported as failed
+     */
+    public IndexingStats indexDocuments(List<Document> documents) {
+        IndexingStats stats = new IndexingStats();
+        shardCoordinator.partition(documents).forEach((node, nodeDocuments) -> {
+            if (node.equals(shardCoordinator.getSelfUrl())) {
+                stats.add(indexLocalShard(nodeDocuments));
+            } else {
+                try {
+                    shardCoordinator.forwardDocuments(node, nodeDocuments);
+                    stats.setForwarded(stats.getForwarded() + nodeDocuments.size());
+                } catch (Exception e) {
+                    log.error("Error forwarding {} documents to {}", nodeDocuments.size(), node, e);
+                    stats.setFailed(stats.getFailed() + nodeDocuments.size());
+                }
+            }
+        });
+        return stats;
+    }
+
+    /**
+     * Indexes multiple documents in this node's vector store
+     * Documents go to the shared document store and the vector store keeps only their ordinals.
+     * Documents whose formatted text is already in the embedding cache skip the embedding API,
+     * the remaining ones are embedded in a single batch call. Nothing is stored until every embedding
+     * is available, so a failed call never pairs re-indexed content with its previous vector
+     */
+    public IndexingStats indexLocalShard(List<Document> documents) {
         try {
-            List<org.springframework.ai.document.Document> aiDocuments = documents.stream()
-                    .map(doc -> {
-                        String content = String.format("Title: %s\nContent: %s\nType: %s\nCategory: %s",
-                                doc.getTitle(), doc.getContent(), doc.getType(), doc.getCategory());
-                        return new org.springframework.ai.document.Document(doc.getId(), content, Map.of(
-                                "id", doc.getId(),
-                                "title", doc.getTitle(),
-                                "type", doc.getType(),
-                                "category", doc.getCategory()
-                        ));
-                    })
-                    .collect(Collectors.toList());
-
-            vectorStore.add(aiDocuments);
-            log.info("Indexed {} documents in vector store", documents.size());
+            List<List<Double>> embeddings = new ArrayList<>(documents.size());
+            List<Integer> missIndexes = new ArrayList<>();
+            List<String> missTexts = new ArrayList<>();
+            List<String> missKeys = new ArrayList<>();
+            for (Document document : documents) {
+                String text = embeddingText(document);
+                String key = embeddingCache.key(text);
+                List<Double> embedding = embeddingCache.get(key);
+                if (embedding == null) {
+                    missIndexes.add(embeddings.size());
+                    missTexts.add(text);
+                    missKeys.add(key);
+                }
+                embeddings.add(embedding);
+            }
+
+            if (!missTexts.isEmpty()) {
+                List<List<Double>> missEmbeddings = embeddingClient.embed(missTexts);
+                for (int i = 0; i < missTexts.size(); i++) {
+                    embeddings.set(missIndexes.get(i), missEmbeddings.get(i));
+                    embeddingCache.put(missKeys.get(i), documents.get(missIndexes.get(i)).getId(), missEmbeddings.get(i));
+                }
+            }
+
+            // The document is stored before its vector, so a scan that finds the vector can hydrate it
+            for (int i = 0; i < documents.size(); i++) {
+                vectorStore.add(documentStore.put(documents.get(i)), embeddings.get(i));
+            }
+
+            int skipped = documents.size() - missTexts.size();
+            log.info("Indexed {} documents in vector store ({} embedded, {} skipped via cache)",
+                    documents.size(), missTexts.size(), skipped);
+            return new IndexingStats(missTexts.size(), skipped, 0, 0);
         } catch (Exception e) {
             log.error("Error indexing documents in vector store", e);
+            return new IndexingStats(0, 0, 0, documents.size());
         }
     }
 
     /**
-     * Converts Spring AI Document to our Document model
+     * Compacts the embedding cache against the documents currently indexed on this node
+     * Entries of documents indexed since with different text are dropped; entries of documents not
+     * re-indexed since startup are kept. A document indexed during compaction may lose its fresh entry,
+     * which only costs one re-embedding. Returns the number of entries dropped.
      */
-    private com.hybrid.search.model.Document convertToDocument(org.springframework.ai.document.Document aiDoc) {
-        Map<String, Object> metadata = aiDoc.getMetadata();
-        return new com.hybrid.search.model.Document(
-                (String) metadata.get("id"),
-                (String) metadata.get("title"),
-                aiDoc.getContent(),
-                (String) metadata.get("type"),
-                (String) metadata.get("category")
-        );
+    public int compactEmbeddingCache() throws IOException {
+        Set<String> liveKeys = new HashSet<>();
+        Set<String> indexedIds = new HashSet<>();
+        for (int ordinal = 0; ordinal < documentStore.size(); ordinal++) {
+            Document document = documentStore.get(ordinal);
+            liveKeys.add(embeddingCache.key(embeddingText(document)));
+            indexedIds.add(document.getId());
+        }
+        return embeddingCache.compact(liveKeys, indexedIds);
     }
-}
 
+    private static String embeddingText(Document document) {
+        return String.format("Title: %s\nContent: %s\nType: %s\nCategory: %s",
+                document.getTitle(), document.getContent(), document.getType(), document.getCategory());
+    }
+}
@@ -1,112 +1,102 @@
 package com.hybrid.search.service.semantic;
 
-import org.springframework.ai.document.Document;
-import org.springframework.ai.embedding.EmbeddingClient;
-import org.springframework.ai.vectorstore.SearchRequest;
-import org.springframework.ai.vectorstore.VectorStore;
+import com.hybrid.search.service.semantic.kernel.VectorKernel;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Simple in-memory vector store implementation
- * Stores documents with their embeddings for similarity search
+ * Stores embeddings for similarity search, indexed by the document's ordinal in the shared document store
+ * Embeddings are kept as unit-length float arrays so cosine similarity reduces to a dot product
+ * computed by the selected {@link VectorKernel}
+ * Vectors are published through an AtomicReferenceArray and stored only after their document,
+ * so a scan that sees a vector can always hydrate its document
  */
-public class SimpleInMemoryVectorStore implements VectorStore {
+public class SimpleInMemoryVectorStore {
 
-    private final EmbeddingClient embeddingClient;
-    private final Map<String, StoredDocument> documents = new ConcurrentHashMap<>();
+    private static final int INITIAL_CAPACITY = 1024;
 
-    public SimpleInMemoryVectorStore(EmbeddingClient embeddingClient) {
-        this.embeddingClient = embeddingClient;
-    }
+    private final VectorKernel kernel;
+    private volatile AtomicReferenceArray<float[]> vectors = new AtomicReferenceArray<>(INITIAL_CAPACITY);
 
-    @Override
-    public void add(List<Document> documents) {
-        for (Document doc : documents) {
-            // Generate embedding for the document content
-            List<Double> embedding = embeddingClient.embed(doc.getContent());
-            this.documents.put(doc.getId(), new StoredDocument(doc, embedding));
-        }
+    public SimpleInMemoryVectorStore(VectorKernel kernel) {
+        this.kernel = kernel;
     }
 
-    @Override
-    public Optional<Boolean> delete(List<String> idList) {
-        idList.forEach(documents::remove);
-        return Optional.of(true);
-    }
-
-    @Override
-    public List<Document> similaritySearch(SearchRequest request) {
-        if (documents.isEmpty()) {
-            return new ArrayList<>();
+    /**
+     * Stores the embedding of the document with the given ordinal
+     */
+    synchronized void add(int ordinal, List<Double> embedding) {
+        float[] vector = normalize(embedding);
+        if (ordinal >= vectors.length()) {
+            AtomicReferenceArray<float[]> grown = new AtomicReferenceArray<>(Math.max(vectors.length() * 2, ordinal + 1));
+            for (int i = 0; i < vectors.length(); i++) {
+                grown.set(i, vectors.get(i));
+            }
+            vectors = grown;
         }
-
-        // Generate embedding for the query string
-        List<Double> queryEmbedding = embeddingClient.embed(request.getQuery());
-
-        // Calculate cosine similarity for all documents
-        List<ScoredDocument> scoredDocs = documents.values().stream()
-                .map(storedDoc -> {
-                    double similarity = cosineSimilarity(queryEmbedding, storedDoc.embedding);
-                    return new ScoredDocument(storedDoc.document, similarity);
-                })
-                .sorted((a, b) -> Double.compare(b.score, a.score)) // Sort descending by score
-                .limit(request.getTopK())
-                .collect(Collectors.toList());
-
-        return scoredDocs.stream()
-                .map(sd -> sd.document)
-                .collect(Collectors.toList());
+        vectors.set(ordinal, vector);
     }
 
     /**
-     * Calculate cosine similarity between two vectors
+     * Scores all stored vectors against an already computed query embedding
+     * Only the current top-K candidates are kept while scanning
      */
-    private double cosineSimilarity(List<Double> vec1, List<Double> vec2) {
-        if (vec1.size() != vec2.size()) {
-            return 0.0;
-        }
-
-        double dotProduct = 0.0;
-        double norm1 = 0.0;
-        double norm2 = 0.0;
-
-        for (int i = 0; i < vec1.size(); i++) {
-            dotProduct += vec1.get(i) * vec2.get(i);
-            norm1 += vec1.get(i) * vec1.get(i);
-            norm2 += vec2.get(i) * vec2.get(i);
+    List<ScoredOrdinal> similaritySearch(List<Double> queryEmbedding, int topK) {
+        if (topK <= 0) {
+            return new ArrayList<>();
         }
-
-        if (norm1 == 0.0 || norm2 == 0.0) {
-            return 0.0;
+        float[] queryVector = normalize(queryEmbedding);
+        AtomicReferenceArray<float[]> snapshot = vectors;
+
+        // Calculate cosine similarity for all documents, keeping a min-heap of the best topK
+        PriorityQueue<ScoredOrdinal> best = new PriorityQueue<>(topK, (a, b) -> Double.compare(a.score, b.score));
+        for (int ordinal = 0; ordinal < snapshot.length(); ordinal++) {
+            float[] vector = snapshot.get(ordinal);
+            if (vector == null) {
+                continue;
+            }
+            double similarity = vector.length == queryVector.length ? kernel.dot(queryVector, vector) : 0.0;
+            if (best.size() < topK) {
+                best.add(new ScoredOrdinal(ordinal, similarity));
+            } else if (similarity > best.peek().score) {
+                best.poll();
+                best.add(new ScoredOrdinal(ordinal, similarity));
+            }
         }
 
-        return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
+        List<ScoredOrdinal> results = new ArrayList<>(best);
+        results.sort((a, b) -> Double.compare(b.score, a.score)); // Sort descending by score
+        return results;
     }
 
-    private static class StoredDocument {
-        final Document document;
-        final List<Double> embedding;
+    /**
+     * Converts an embedding to a unit-length float vector; a zero vector stays zero and scores 0
+     */
+    private static float[] normalize(List<Double> embedding) {
+        double norm = 0.0;
+        for (Double value : embedding) {
+            norm += value * value;
+        }
+        double scale = norm == 0.0 ? 0.0 : 1.0 / Math.sqrt(norm);
 
-        StoredDocument(Document document, List<Double> embedding) {
-            this.document = document;
-            this.embedding = embedding;
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) (embedding.get(i) * scale);
         }
+        return vector;
     }
 
-    private static class ScoredDocument {
-        final Document document;
+    static class ScoredOrdinal {
+        final int ordinal;
         final double score;
 
-        ScoredDocument(Document document, double score) {
-            this.document = document;
+        ScoredOrdinal(int ordinal, double score) {
+            this.ordinal = ordinal;
             this.score = score;
         }
     }
 }
-
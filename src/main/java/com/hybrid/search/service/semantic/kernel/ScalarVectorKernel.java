@@ -0,0 +1,39 @@
+package com.hybrid.search.service.semantic.kernel;
+
+/**
+ * Plain Java kernel, used when the Vector API module is not enabled or the CPU has no useful SIMD width
+ */
+public class ScalarVectorKernel implements VectorKernel {
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public int dotInt8(byte[] a, byte[] b) {
+        int sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public int hamming(long[] a, long[] b) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Long.bitCount(a[i] ^ b[i]);
+        }
+        return distance;
+    }
+
+    @Override
+    public String describe() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,73 @@
+package com.hybrid.search.service.semantic.kernel;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel built on the jdk.incubator.vector API using the CPU's preferred vector species
+ * Only loaded by {@link VectorKernels} after checking that the incubator module is present
+ */
+class SimdVectorKernel extends ScalarVectorKernel {
+
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTE_SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int INT8_PARTS = BYTE_SPECIES.length() / INT_SPECIES.length();
+
+    /**
+     * Returns true if the preferred species holds enough float lanes to beat the scalar loop
+     */
+    static boolean isWorthwhile() {
+        return FLOAT_SPECIES.length() >= 4;
+    }
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        FloatVector acc = FloatVector.zero(FLOAT_SPECIES);
+        int i = 0;
+        int bound = FLOAT_SPECIES.loopBound(a.length);
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(FLOAT_SPECIES, a, i);
+            FloatVector vb = FloatVector.fromArray(FLOAT_SPECIES, b, i);
+            acc = va.fma(vb, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public int dotInt8(byte[] a, byte[] b) {
+        IntVector acc = IntVector.zero(INT_SPECIES);
+        int i = 0;
+        int bound = BYTE_SPECIES.loopBound(a.length);
+        for (; i < bound; i += BYTE_SPECIES.length()) {
+            ByteVector va = ByteVector.fromArray(BYTE_SPECIES, a, i);
+            ByteVector vb = ByteVector.fromArray(BYTE_SPECIES, b, i);
+            // Widen each quarter (or other fraction) of the bytes to ints before multiplying
+            for (int part = 0; part < INT8_PARTS; part++) {
+                IntVector ia = (IntVector) va.convertShape(VectorOperators.B2I, INT_SPECIES, part);
+                IntVector ib = (IntVector) vb.convertShape(VectorOperators.B2I, INT_SPECIES, part);
+                acc = acc.add(ia.mul(ib));
+            }
+        }
+        int sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    // hamming() is inherited: Long.bitCount is already intrinsified to POPCNT, and the
+    // vector BIT_COUNT operator is not available in the JDK 17 incubator API
+
+    @Override
+    public String describe() {
+        return "simd (" + FLOAT_SPECIES + ")";
+    }
+}
@@ -0,0 +1,27 @@
+package com.hybrid.search.service.semantic.kernel;
+
+/**
+ * Scoring kernel used by the vector store to compare embeddings
+ */
+public interface VectorKernel {
+
+    /**
+     * Dot product of two float vectors of equal length
+     */
+    float dot(float[] a, float[] b);
+
+    /**
+     * Dot product of two int8 quantized vectors of equal length
+     */
+    int dotInt8(byte[] a, byte[] b);
+
+    /**
+     * Hamming distance between two bit vectors packed into longs
+     */
+    int hamming(long[] a, long[] b);
+
+    /**
+     * Short description of the kernel for logging
+     */
+    String describe();
+}
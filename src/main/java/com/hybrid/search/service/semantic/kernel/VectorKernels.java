@@ -0,0 +1,48 @@
+package com.hybrid.search.service.semantic.kernel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Selects the scoring kernel at startup
+ * The SIMD kernel requires the JVM to be started with --add-modules jdk.incubator.vector,
+ * otherwise the scalar kernel is used.
+ */
+@Slf4j
+public final class VectorKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private VectorKernels() {
+    }
+
+    /**
+     * Returns a kernel for the given preference: "auto", "simd" or "scalar"
+     */
+    public static VectorKernel select(String preference) {
+        if ("scalar".equalsIgnoreCase(preference)) {
+            return logSelected(new ScalarVectorKernel());
+        }
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("Module {} not enabled, using scalar vector kernel", VECTOR_MODULE);
+            return logSelected(new ScalarVectorKernel());
+        }
+        try {
+            // Loaded reflectively so the incubator classes are only resolved when the module is present
+            Class<?> simdClass = Class.forName("com.hybrid.search.service.semantic.kernel.SimdVectorKernel");
+            boolean worthwhile = (boolean) simdClass.getDeclaredMethod("isWorthwhile").invoke(null);
+            if (!worthwhile && !"simd".equalsIgnoreCase(preference)) {
+                log.info("Preferred vector species too narrow, using scalar vector kernel");
+                return logSelected(new ScalarVectorKernel());
+            }
+            return logSelected((VectorKernel) simdClass.getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Unable to initialize SIMD vector kernel, using scalar vector kernel", e);
+            return logSelected(new ScalarVectorKernel());
+        }
+    }
+
+    private static VectorKernel logSelected(VectorKernel kernel) {
+        log.info("Using {} vector kernel", kernel.describe());
+        return kernel;
+    }
+}
@@ -0,0 +1,157 @@
+package com.hybrid.search.service.store;
+
+import com.hybrid.search.model.Document;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Document Store - Compact shared storage of indexed documents addressed by dense int ordinals
+ * Content is kept deflate-compressed (when that saves space) and type/category values are interned,
+ * so indexes such as the vector store only need to hold ordinals and hydrate documents on demand.
+ * Entries are published through an AtomicReferenceArray, so a reader that learns an ordinal from another
+ * index always sees the document stored before that ordinal was handed out.
+ */
+@Service
+public class DocumentStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Integer> ordinalsById = new ConcurrentHashMap<>();
+    private final Map<String, String> dictionary = new ConcurrentHashMap<>();
+    private volatile AtomicReferenceArray<CompactDocument> entries = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private int size;
+
+    /**
+     * Stores a document and returns its ordinal; re-storing an id keeps its ordinal
+     */
+    public synchronized int put(Document document) {
+        CompactDocument compact = new CompactDocument(
+                document.getId(),
+                document.getTitle(),
+                compress(document.getContent()),
+                intern(document.getType()),
+                intern(document.getCategory())
+        );
+
+        Integer existing = ordinalsById.get(document.getId());
+        int ordinal = existing != null ? existing : size++;
+        if (ordinal >= entries.length()) {
+            entries = grow(entries, entries.length() * 2);
+        }
+        entries.set(ordinal, compact);
+        ordinalsById.putIfAbsent(document.getId(), ordinal);
+        return ordinal;
+    }
+
+    /**
+     * Returns the document id for an ordinal without hydrating the document
+     */
+    public String getId(int ordinal) {
+        return entries.get(ordinal).id;
+    }
+
+    /**
+     * Hydrates the full document for an ordinal, decompressing its content
+     */
+    public Document get(int ordinal) {
+        CompactDocument compact = entries.get(ordinal);
+        return new Document(compact.id, compact.title, decompress(compact.content), compact.type, compact.category);
+    }
+
+    public int size() {
+        return ordinalsById.size();
+    }
+
+    private static AtomicReferenceArray<CompactDocument> grow(AtomicReferenceArray<CompactDocument> current, int capacity) {
+        AtomicReferenceArray<CompactDocument> grown = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        return grown;
+    }
+
+    private String intern(String value) {
+        return value == null ? null : dictionary.computeIfAbsent(value, key -> key);
+    }
+
+    static CompressedText compress(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+            byte[] buffer = new byte[Math.max(64, raw.length)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            byte[] compressed = out.toByteArray();
+            // Short texts often grow under deflate; keep them raw
+            return compressed.length < raw.length
+                    ? new CompressedText(compressed, raw.length)
+                    : new CompressedText(raw, -1);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String decompress(CompressedText text) {
+        if (text == null) {
+            return null;
+        }
+        if (text.rawLength < 0) {
+            return new String(text.bytes, StandardCharsets.UTF_8);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(text.bytes);
+            byte[] raw = new byte[text.rawLength];
+            int offset = 0;
+            while (offset < raw.length && !inflater.finished()) {
+                offset += inflater.inflate(raw, offset, raw.length - offset);
+            }
+            return new String(raw, 0, offset, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed document content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static class CompressedText {
+        final byte[] bytes;
+        final int rawLength; // Uncompressed length, or -1 if bytes are stored raw
+
+        CompressedText(byte[] bytes, int rawLength) {
+            this.bytes = bytes;
+            this.rawLength = rawLength;
+        }
+    }
+
+    private static class CompactDocument {
+        final String id;
+        final String title;
+        final CompressedText content;
+        final String type;
+        final String category;
+
+        CompactDocument(String id, String title, CompressedText content, String type, String category) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+            this.type = type;
+            this.category = category;
+        }
+    }
+}
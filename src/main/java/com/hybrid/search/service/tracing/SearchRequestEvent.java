@@ -0,0 +1,28 @@
+package com.hybrid.search.service.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning a whole search request, enclosing its stage events
+ */
+@Name("com.hybrid.search.SearchRequest")
+@Label("Search Request")
+@Category({"Hybrid Search"})
+@Description("Duration and result count of one search request")
+@StackTrace(false)
+class SearchRequestEvent extends Event {
+
+    @Label("Search Type")
+    String type;
+
+    @Label("Query Hash")
+    int queryHash;
+
+    @Label("Result Count")
+    int resultCount;
+}
@@ -0,0 +1,28 @@
+package com.hybrid.search.service.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded for each stage of a search (query rewriting, Solr, embedding, vector scan, fusion)
+ */
+@Name("com.hybrid.search.SearchStage")
+@Label("Search Stage")
+@Category({"Hybrid Search"})
+@Description("Duration and result count of one search pipeline stage")
+@StackTrace(false)
+class SearchStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Query Hash")
+    int queryHash;
+
+    @Label("Result Count")
+    int resultCount;
+}
@@ -0,0 +1,90 @@
+package com.hybrid.search.service.tracing;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-request trace of search pipeline stages
+ * Every stage is emitted as a JFR event and its duration is kept for the slow query log.
+ * Stages may end on different threads, so the breakdown is synchronized.
+ * Only a hash of the query is recorded, never the query text.
+ */
+public class SearchTrace {
+
+    private final String type;
+    private final int queryHash;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> stageNanos = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final SearchRequestEvent requestEvent = new SearchRequestEvent();
+    private volatile long totalNanos;
+    private volatile int resultCount;
+
+    public SearchTrace(String type, String query) {
+        this.type = type;
+        this.queryHash = query != null ? query.hashCode() : 0;
+        requestEvent.begin();
+    }
+
+    /**
+     * Starts timing a stage; the returned stage must be ended exactly once
+     */
+    public Stage stage(String name) {
+        return new Stage(name);
+    }
+
+    /**
+     * Marks the request as complete and commits its JFR event
+     */
+    public SearchTrace finish(int resultCount) {
+        this.totalNanos = System.nanoTime() - startNanos;
+        this.resultCount = resultCount;
+        requestEvent.end();
+        if (requestEvent.shouldCommit()) {
+            requestEvent.type = type;
+            requestEvent.queryHash = queryHash;
+            requestEvent.resultCount = resultCount;
+            requestEvent.commit();
+        }
+        return this;
+    }
+
+    public String getType() { return type; }
+    public int getQueryHash() { return queryHash; }
+    public Instant getStartedAt() { return startedAt; }
+    public long getTotalNanos() { return totalNanos; }
+    public int getResultCount() { return resultCount; }
+
+    public Map<String, Long> getStageNanos() {
+        synchronized (stageNanos) {
+            return new LinkedHashMap<>(stageNanos);
+        }
+    }
+
+    /**
+     * A running pipeline stage
+     */
+    public class Stage {
+        private final String name;
+        private final long stageStartNanos = System.nanoTime();
+        private final SearchStageEvent event = new SearchStageEvent();
+
+        private Stage(String name) {
+            this.name = name;
+            event.begin();
+        }
+
+        public void end(int resultCount) {
+            stageNanos.merge(name, System.nanoTime() - stageStartNanos, Long::sum);
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = name;
+                event.queryHash = queryHash;
+                event.resultCount = resultCount;
+                event.commit();
+            }
+        }
+    }
+}
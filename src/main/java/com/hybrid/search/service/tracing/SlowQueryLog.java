@@ -0,0 +1,128 @@
+package com.hybrid.search.service.tracing;
+
+import com.hybrid.search.dto.SlowQueryEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Slow Query Log - Keeps the N slowest search requests of each recent time window with their stage breakdown
+ * Backed by a ring of per-window buckets, each a bounded min-heap. A bucket is reused once its window is older
+ * than the retention period, so warm-up outliers age out instead of hiding later latency spikes.
+ * Requests faster than a bucket's current N-th slowest are rejected without locking.
+ */
+@Service
+public class SlowQueryLog {
+
+    private final int capacity;
+    private final long windowMillis;
+    private final Bucket[] buckets;
+
+    public SlowQueryLog(@Value("${search.slow-query-log.size:50}") int capacity,
+                        @Value("${search.slow-query-log.window-seconds:60}") long windowSeconds,
+                        @Value("${search.slow-query-log.windows:60}") int windows) {
+        this.capacity = capacity;
+        this.windowMillis = windowSeconds * 1000;
+        this.buckets = new Bucket[Math.max(1, windows)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Offers a finished trace to the bucket of the current window
+     */
+    public void record(SearchTrace trace) {
+        if (capacity <= 0) {
+            return;
+        }
+        long window = System.currentTimeMillis() / windowMillis;
+        Bucket bucket = buckets[(int) Math.floorMod(window, (long) buckets.length)];
+        if (bucket.window == window && trace.getTotalNanos() <= bucket.admissionThresholdNanos) {
+            return;
+        }
+        synchronized (bucket) {
+            if (bucket.window != window) {
+                bucket.reset(window);
+            }
+            bucket.slowest.add(trace);
+            if (bucket.slowest.size() > capacity) {
+                bucket.slowest.poll();
+            }
+            if (bucket.slowest.size() == capacity) {
+                bucket.admissionThresholdNanos = bucket.slowest.peek().getTotalNanos();
+            }
+        }
+    }
+
+    /**
+     * Returns the slowest requests of the whole retention period, slowest first
+     */
+    public List<SlowQueryEntry> snapshot() {
+        return snapshot(buckets.length);
+    }
+
+    /**
+     * Returns the slowest requests of the most recent windows, slowest first
+     */
+    public List<SlowQueryEntry> snapshot(int recentWindows) {
+        long current = System.currentTimeMillis() / windowMillis;
+        long oldest = current - Math.min(Math.max(1, recentWindows), buckets.length) + 1;
+        List<SearchTrace> traces = new ArrayList<>();
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                if (bucket.window >= oldest && bucket.window <= current) {
+                    traces.addAll(bucket.slowest);
+                }
+            }
+        }
+        return traces.stream()
+                .sorted(Comparator.comparingLong(SearchTrace::getTotalNanos).reversed())
+                .limit(capacity)
+                .map(this::toEntry)
+                .collect(Collectors.toList());
+    }
+
+    public void clear() {
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                bucket.reset(Long.MIN_VALUE);
+            }
+        }
+    }
+
+    private SlowQueryEntry toEntry(SearchTrace trace) {
+        Map<String, Double> stagesMs = new LinkedHashMap<>();
+        trace.getStageNanos().forEach((stage, nanos) -> stagesMs.put(stage, nanos / 1_000_000.0));
+        return new SlowQueryEntry(
+                trace.getType(),
+                trace.getQueryHash(),
+                trace.getStartedAt().toString(),
+                trace.getTotalNanos() / 1_000_000.0,
+                trace.getResultCount(),
+                stagesMs
+        );
+    }
+
+    /**
+     * Slowest requests of one time window
+     */
+    private static class Bucket {
+        final PriorityQueue<SearchTrace> slowest = new PriorityQueue<>(Comparator.comparingLong(SearchTrace::getTotalNanos));
+        volatile long window = Long.MIN_VALUE;
+        volatile long admissionThresholdNanos;
+
+        void reset(long window) {
+            slowest.clear();
+            admissionThresholdNanos = 0;
+            this.window = window;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.hybrid.search.service.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://node-a:8080", "http://node-b:8080", "http://node-c:8080");
+
+    @Test
+    void assignsTheSameOwnerOnEveryRingBuiltFromTheSameNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        // Peers may list the nodes in a different order and must still agree on the owner
+        ConsistentHashRing peerRing = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 128);
+
+        Set<String> owners = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "doc-" + i;
+            assertThat(ring.nodeFor(key)).isEqualTo(ring.nodeFor(key)).isEqualTo(peerRing.nodeFor(key));
+            owners.add(ring.nodeFor(key));
+        }
+        assertThat(owners).containsExactlyInAnyOrderElementsOf(NODES);
+    }
+
+    @Test
+    void wrapsAroundToTheFirstNodeAfterTheLastPosition() {
+        // With one position per node, keys hashing past the highest position belong to the lowest one
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 1);
+        String lowest = null;
+        String highest = null;
+        long lowestHash = Long.MAX_VALUE;
+        long highestHash = Long.MIN_VALUE;
+        for (String node : NODES) {
+            long hash = ConsistentHashRing.hash(node + "#0");
+            if (hash < lowestHash) {
+                lowestHash = hash;
+                lowest = node;
+            }
+            if (hash > highestHash) {
+                highestHash = hash;
+                highest = node;
+            }
+        }
+
+        String wrapping = null;
+        for (int i = 0; wrapping == null; i++) {
+            if (ConsistentHashRing.hash("doc-" + i) > highestHash) {
+                wrapping = "doc-" + i;
+            }
+        }
+        assertThat(highest).isNotEqualTo(lowest);
+        assertThat(ring.nodeFor(wrapping)).isEqualTo(lowest);
+    }
+
+    @Test
+    void returnsNullWhenTheRingIsEmpty() {
+        assertThat(new ConsistentHashRing(List.of(), 128).nodeFor("doc-1")).isNull();
+    }
+}
@@ -0,0 +1,109 @@
+package com.hybrid.search.service.hybrid;
+
+import com.hybrid.search.dto.SearchRequest;
+import com.hybrid.search.dto.SearchResult;
+import com.hybrid.search.model.Document;
+import com.hybrid.search.service.lexical.SolrSearchService;
+import com.hybrid.search.service.query.QueryRewritingService;
+import com.hybrid.search.service.semantic.SemanticHit;
+import com.hybrid.search.service.semantic.SemanticSearchService;
+import com.hybrid.search.service.tracing.SearchTrace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HybridSearchServiceTest {
+
+    private final SolrSearchService solrSearchService = mock(SolrSearchService.class);
+    private final SemanticSearchService semanticSearchService = mock(SemanticSearchService.class);
+    private final QueryRewritingService queryRewritingService = mock(QueryRewritingService.class);
+    private final HybridSearchService service =
+            new HybridSearchService(solrSearchService, semanticSearchService, queryRewritingService);
+
+    @BeforeEach
+    void rewriteToSameQuery() {
+        when(queryRewritingService.rewriteQuery(anyString(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void lexicalResultsWithoutScoresFallBackToReciprocalRank() {
+        List<SearchResult> lexical = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            lexical.add(new SearchResult(document("doc-" + i), null, "lexical"));
+        }
+        stubSearches(lexical, List.of());
+
+        List<SearchResult> results = search(20, 1.0, 0.0);
+
+        // Past ten results the ranks still score above zero and keep their order
+        assertThat(results).hasSize(12);
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).getDocument().getId()).isEqualTo("doc-" + i);
+            assertThat(results.get(i).getScore()).isCloseTo(1.0 / (i + 1), within(1e-9));
+        }
+    }
+
+    @Test
+    void semanticHitsAreWeightedByTheirNormalizedScore() {
+        List<SearchResult> lexical = List.of(
+                new SearchResult(document("both"), 4.0, "lexical"),
+                new SearchResult(document("lexical-only"), 2.0, "lexical"));
+        List<SemanticHit> semantic = List.of(hit("semantic-only", 0.8), hit("both", 0.4));
+        stubSearches(lexical, semantic);
+
+        List<SearchResult> results = search(10, 0.5, 0.5);
+
+        assertThat(results).extracting(result -> result.getDocument().getId())
+                .containsExactly("both", "semantic-only", "lexical-only");
+        assertThat(results).extracting(SearchResult::getSource).containsExactly("hybrid", "semantic", "lexical");
+        // both: 0.5 * 4/4 + 0.5 * 0.4/0.8; semantic-only: 0.5 * 0.8/0.8; lexical-only: 0.5 * 2/4
+        assertThat(results).extracting(SearchResult::getScore).containsExactly(0.75, 0.5, 0.25);
+    }
+
+    @Test
+    void trimsToMaxResultsBeforeHydrating() {
+        SemanticHit kept = hit("kept", 0.9);
+        SemanticHit dropped = hit("dropped", 0.1);
+        stubSearches(List.of(new SearchResult(document("lexical"), 1.0, "lexical")), List.of(kept, dropped));
+
+        List<SearchResult> results = search(2, 0.6, 0.4);
+
+        assertThat(results).extracting(result -> result.getDocument().getId()).containsExactly("lexical", "kept");
+        verify(semanticSearchService).hydrate(kept);
+        verify(semanticSearchService, never()).hydrate(dropped);
+    }
+
+    private void stubSearches(List<SearchResult> lexical, List<SemanticHit> semantic) {
+        when(solrSearchService.searchWithScores(anyString(), anyInt(), any())).thenReturn(lexical);
+        when(semanticSearchService.searchHits(anyString(), anyInt(), any())).thenReturn(semantic);
+    }
+
+    private List<SearchResult> search(int maxResults, double lexicalWeight, double semanticWeight) {
+        SearchRequest request = new SearchRequest("query", maxResults, lexicalWeight, semanticWeight);
+        return service.performHybridSearch(request, new SearchTrace("hybrid", request.getQuery())).getResults();
+    }
+
+    private SemanticHit hit(String id, double score) {
+        SemanticHit hit = mock(SemanticHit.class);
+        when(hit.getId()).thenReturn(id);
+        when(hit.getScore()).thenReturn(score);
+        when(semanticSearchService.hydrate(hit)).thenReturn(document(id));
+        return hit;
+    }
+
+    private static Document document(String id) {
+        return new Document(id, id + " title", "content", "type", "category");
+    }
+}
@@ -0,0 +1,349 @@
+package com.hybrid.search.service.lexical;
+
+import com.hybrid.search.dto.SearchResult;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.util.JavaBinCodec;
+import org.apache.solr.common.util.NamedList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises failover, hedging and cancellation of {@link SolrReplicaClient} against local stub replicas,
+ * and the streaming mapping of {@link StreamingResultCollector} over the stubs' javabin responses
+ */
+class SolrReplicaClientTest {
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void closeResources() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void failsOverToNextReplicaOnServerError() throws Exception {
+        StubReplica failing = replica("a").respondWith(500);
+        StubReplica healthy = replica("b");
+        SolrReplicaClient client = client(false, 0, failing, healthy);
+
+        assertThat(client.request(attempts(), "test")).isEqualTo("b");
+        assertThat(failing.requests.get()).isEqualTo(1);
+        assertThat(healthy.requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failsOverToNextReplicaWhenConnectionIsRefused() throws Exception {
+        StubReplica down = replica("a");
+        StubReplica healthy = replica("b");
+        SolrReplicaClient client = client(false, 0, down, healthy);
+        down.close();
+
+        assertThat(client.request(attempts(), "test")).isEqualTo("b");
+    }
+
+    @Test
+    void doesNotFailOverOnClientError() throws Exception {
+        StubReplica rejecting = replica("a").respondWith(400);
+        StubReplica healthy = replica("b");
+        SolrReplicaClient client = client(false, 0, rejecting, healthy);
+
+        assertThatThrownBy(() -> client.request(attempts(), "test")).isInstanceOf(SolrServerException.class);
+        assertThat(rejecting.requests.get()).isEqualTo(1);
+        assertThat(healthy.requests.get()).isZero();
+    }
+
+    @Test
+    void failsWhenEveryReplicaFails() throws Exception {
+        SolrReplicaClient client = client(false, 0, replica("a").respondWith(503), replica("b").respondWith(503));
+
+        assertThatThrownBy(() -> client.request(attempts(), "test")).isInstanceOf(SolrServerException.class);
+    }
+
+    @Test
+    void doesNotHedgeRequestsFasterThanTheHedgeDelay() throws Exception {
+        StubReplica fast = replica("a").delay(10);
+        StubReplica spare = replica("b");
+        SolrReplicaClient client = client(true, 1000, fast, spare);
+
+        assertThat(client.request(attempts(), "test")).isEqualTo("a");
+        assertThat(spare.requests.get()).isZero();
+    }
+
+    @Test
+    void hedgedRequestReturnsFirstResponseAndCancelsTheOther() throws Exception {
+        StubReplica slow = replica("a").hang();
+        StubReplica fast = replica("b");
+        SolrReplicaClient client = client(true, 100, slow, fast);
+
+        long start = System.nanoTime();
+        assertThat(client.request(attempts(), "test")).isEqualTo("b");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMs).isBetween(100L, 2000L); // Hedge sent only after the delay
+        assertThat(slow.clientClosed.await(5, TimeUnit.SECONDS)).as("losing attempt cancelled").isTrue();
+    }
+
+    @Test
+    void samplesOnlyWinningAttemptsMeasuredFromTheirOwnStart() throws Exception {
+        StubReplica slow = replica("a").hang();
+        StubReplica fast = replica("b");
+        SolrReplicaClient client = client(true, 50, slow, fast);
+
+        // 64 samples trigger a recompute; every hedged winner answered well under the 50 ms hedge delay,
+        // so the percentile must not include the time spent before the hedge was sent
+        for (int i = 0; i < 64; i++) {
+            assertThat(client.request(attempts(), "test")).isEqualTo("b");
+        }
+        assertThat(client.currentHedgeDelayMs()).isEqualTo(50);
+    }
+
+    @Test
+    void streamsDocumentsIntoScoredResults() throws Exception {
+        StubReplica replica = replica("a").documents(2,
+                document("doc-1", "Java Developer", "Backend role", "job_description", "engineering", 3.5f),
+                document("doc-2", "Data Engineer", "Pipelines", "job_description", "data", 1.25f));
+        SolrReplicaClient client = client(false, 0, replica);
+
+        List<SearchResult> results = client.request(() -> new StreamingResultCollector(new SolrQuery("java").setRows(10)), "test");
+
+        // rows is larger than numFound, so the result list is pre-sized to the two documents found
+        assertThat(results).hasSize(2);
+        SearchResult first = results.get(0);
+        assertThat(first.getDocument().getId()).isEqualTo("doc-1");
+        assertThat(first.getDocument().getTitle()).isEqualTo("Java Developer");
+        assertThat(first.getDocument().getContent()).isEqualTo("Backend role");
+        assertThat(first.getDocument().getType()).isEqualTo("job_description");
+        assertThat(first.getDocument().getCategory()).isEqualTo("engineering");
+        assertThat(first.getScore()).isEqualTo(3.5);
+        assertThat(first.getSource()).isEqualTo("lexical");
+        assertThat(results.get(1).getDocument().getId()).isEqualTo("doc-2");
+        assertThat(results.get(1).getScore()).isEqualTo(1.25);
+    }
+
+    @Test
+    void leavesScoreNullWhenSolrReturnsNone() throws Exception {
+        // Without a score the hybrid fusion falls back to the rank of the result
+        StubReplica replica = replica("a").documents(1000,
+                document("doc-1", "Java Developer", null, "job_description", null, null));
+        SolrReplicaClient client = client(false, 0, replica);
+
+        List<SearchResult> results = client.request(() -> new StreamingResultCollector(new SolrQuery("java").setRows(1)), "test");
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getScore()).isNull();
+        assertThat(results.get(0).getDocument().getContent()).isNull();
+        assertThat(results.get(0).getDocument().getCategory()).isNull();
+    }
+
+    @Test
+    void mapsAnEmptyResponseToNoResults() throws Exception {
+        SolrReplicaClient client = client(false, 0, replica("a").documents(0));
+
+        assertThat(client.request(() -> new StreamingResultCollector(new SolrQuery("nothing").setRows(10)), "test")).isEmpty();
+    }
+
+    private static SolrDocument document(String id, String title, String content, String type, String category, Float score) {
+        SolrDocument document = new SolrDocument();
+        document.setField("id", id);
+        document.setField("title", title);
+        document.setField("content", content);
+        document.setField("type", type);
+        document.setField("category", category);
+        if (score != null) {
+            document.setField("score", score);
+        }
+        return document;
+    }
+
+    private SolrReplicaClient client(boolean hedge, long minHedgeDelayMs, StubReplica... stubs) {
+        List<String> urls = new ArrayList<>();
+        for (StubReplica stub : stubs) {
+            urls.add(stub.url());
+        }
+        SolrReplicaClient client = new SolrReplicaClient(urls, 1000, 10000, 10000, true, hedge, 95, minHedgeDelayMs);
+        resources.add(client);
+        return client;
+    }
+
+    private StubReplica replica(String name) throws IOException {
+        StubReplica stub = new StubReplica(name);
+        resources.add(stub);
+        return stub;
+    }
+
+    /**
+     * Attempts returning the name of the replica that answered
+     */
+    private static Supplier<SolrReplicaClient.RequestAttempt<String>> attempts() {
+        return () -> new SolrReplicaClient.RequestAttempt<>() {
+            private final QueryRequest request = new QueryRequest(new SolrQuery("*:*"));
+
+            @Override
+            public SolrRequest<?> getRequest() {
+                return request;
+            }
+
+            @Override
+            public String toResult(NamedList<Object> response) {
+                return (String) response.get("replica");
+            }
+        };
+    }
+
+    /**
+     * Minimal HTTP/1.1 Solr stand-in answering every request with a javabin body naming the replica,
+     * plus a document list when one is configured
+     */
+    private static class StubReplica implements AutoCloseable {
+        final String name;
+        final ServerSocket server;
+        final AtomicInteger requests = new AtomicInteger();
+        final CountDownLatch clientClosed = new CountDownLatch(1);
+        volatile int status = 200;
+        volatile long delayMs;
+        volatile boolean hang;
+        volatile SolrDocumentList documents;
+
+        StubReplica(String name) throws IOException {
+            this.name = name;
+            this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::acceptLoop, "stub-replica-" + name);
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        StubReplica respondWith(int status) {
+            this.status = status;
+            return this;
+        }
+
+        StubReplica delay(long delayMs) {
+            this.delayMs = delayMs;
+            return this;
+        }
+
+        StubReplica hang() {
+            this.hang = true;
+            return this;
+        }
+
+        StubReplica documents(long numFound, SolrDocument... docs) {
+            SolrDocumentList list = new SolrDocumentList();
+            list.setNumFound(numFound);
+            list.setStart(0);
+            for (SolrDocument doc : docs) {
+                list.add(doc);
+                Object score = doc.getFieldValue("score");
+                if (score != null && (list.getMaxScore() == null || (Float) score > list.getMaxScore())) {
+                    list.setMaxScore((Float) score);
+                }
+            }
+            this.documents = list;
+            return this;
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getLocalPort() + "/solr";
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread handler = new Thread(() -> handle(socket));
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket) {
+                InputStream in = socket.getInputStream();
+                readHeaders(in);
+                requests.incrementAndGet();
+                if (hang) {
+                    // Blocks until the client aborts the exchange and closes the connection
+                    if (in.read() < 0) {
+                        clientClosed.countDown();
+                    }
+                    return;
+                }
+                Thread.sleep(delayMs);
+
+                byte[] body = status == 200 ? javabin(name, documents) : ("error from " + name).getBytes(StandardCharsets.UTF_8);
+                String contentType = status == 200 ? "application/octet-stream" : "text/plain";
+                OutputStream out = socket.getOutputStream();
+                out.write(("HTTP/1.1 " + status + " Stub\r\n"
+                        + "Content-Type: " + contentType + "\r\n"
+                        + "Content-Length: " + body.length + "\r\n"
+                        + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(body);
+                out.flush();
+            } catch (SocketException e) {
+                clientClosed.countDown();
+            } catch (IOException | InterruptedException e) {
+                // Connection torn down by the test
+            }
+        }
+
+        private static void readHeaders(InputStream in) throws IOException {
+            int matched = 0;
+            byte[] terminator = {'\r', '\n', '\r', '\n'};
+            while (matched < terminator.length) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new IOException("Connection closed before request headers ended");
+                }
+                matched = b == terminator[matched] ? matched + 1 : (b == '\r' ? 1 : 0);
+            }
+        }
+
+        private static byte[] javabin(String replica, SolrDocumentList documents) throws IOException {
+            NamedList<Object> header = new NamedList<>();
+            header.add("status", 0);
+            NamedList<Object> response = new NamedList<>();
+            response.add("responseHeader", header);
+            response.add("replica", replica);
+            if (documents != null) {
+                response.add("response", documents);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new JavaBinCodec().marshal(response, out);
+            return out.toByteArray();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.hybrid.search.service.semantic;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddingCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<EmbeddingCache> caches = new ArrayList<>();
+
+    @AfterEach
+    void closeCaches() {
+        caches.forEach(EmbeddingCache::close);
+    }
+
+    @Test
+    void reloadsEntriesAfterReopening() {
+        EmbeddingCache cache = open();
+        String first = cache.key("first");
+        String second = cache.key("second");
+        cache.put(first, "doc-1", List.of(0.25, -1.5, 3.0));
+        cache.put(second, "doc-2", List.of(7.0));
+        cache.close();
+
+        EmbeddingCache reopened = open();
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.get(first)).containsExactly(0.25, -1.5, 3.0);
+        assertThat(reopened.get(second)).containsExactly(7.0);
+        assertThat(reopened.get(reopened.key("missing"))).isNull();
+    }
+
+    @Test
+    void keysDependOnTheModel() {
+        EmbeddingCache cache = open();
+        EmbeddingCache otherModel = new EmbeddingCache(false, dir.resolve("other.bin").toString(), "other-model");
+
+        assertThat(cache.key("text")).isEqualTo(cache.key("text")).isNotEqualTo(otherModel.key("text"));
+    }
+
+    @Test
+    void dropsTornLastRecordAndKeepsLaterAppendsReadable() throws IOException {
+        EmbeddingCache cache = open();
+        String complete = cache.key("complete");
+        String torn = cache.key("torn");
+        cache.put(complete, "doc-1", List.of(1.0, 2.0));
+        cache.put(torn, "doc-2", List.of(3.0, 4.0, 5.0));
+        cache.close();
+
+        // Simulate a crash halfway through writing the last vector
+        try (FileChannel channel = FileChannel.open(path(), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 12);
+        }
+
+        EmbeddingCache reopened = open();
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.get(complete)).containsExactly(1.0, 2.0);
+        assertThat(reopened.get(torn)).isNull();
+
+        String appended = reopened.key("appended");
+        reopened.put(appended, "doc-3", List.of(6.0));
+        reopened.close();
+
+        EmbeddingCache again = open();
+        assertThat(again.size()).isEqualTo(2);
+        assertThat(again.get(complete)).containsExactly(1.0, 2.0);
+        assertThat(again.get(appended)).containsExactly(6.0);
+    }
+
+    @Test
+    void compactionDropsOnlyEntriesOfDocumentsReindexedWithDifferentText() throws IOException {
+        EmbeddingCache cache = open();
+        String current = cache.key("doc-1 v2");
+        String superseded = cache.key("doc-1 v1");
+        String notReindexed = cache.key("doc-2");
+        cache.put(superseded, "doc-1", List.of(1.0));
+        cache.put(current, "doc-1", List.of(2.0));
+        cache.put(notReindexed, "doc-2", List.of(3.0));
+        long sizeBefore = Files.size(path());
+
+        int dropped = cache.compact(Set.of(current), Set.of("doc-1"));
+
+        assertThat(dropped).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(superseded)).isNull();
+        assertThat(cache.get(current)).containsExactly(2.0);
+        assertThat(cache.get(notReindexed)).containsExactly(3.0);
+        assertThat(Files.size(path())).isLessThan(sizeBefore);
+        assertThat(path().resolveSibling(path().getFileName() + ".compact")).doesNotExist();
+
+        // The compacted file is locked, appendable and reloads like any other
+        String added = cache.key("doc-3");
+        cache.put(added, "doc-3", List.of(4.0));
+        cache.close();
+        EmbeddingCache reopened = open();
+        assertThat(reopened.size()).isEqualTo(3);
+        assertThat(reopened.get(current)).containsExactly(2.0);
+        assertThat(reopened.get(added)).containsExactly(4.0);
+    }
+
+    @Test
+    void secondInstanceOnTheSamePathRunsWithoutTheCache() {
+        EmbeddingCache owner = open();
+        String key = owner.key("text");
+        owner.put(key, "doc-1", List.of(1.0));
+
+        EmbeddingCache second = open();
+        second.put(second.key("other"), "doc-2", List.of(2.0));
+
+        assertThat(second.size()).isZero();
+        assertThat(second.get(key)).isNull();
+        assertThat(owner.get(key)).containsExactly(1.0);
+        assertThat(owner.get(owner.key("other"))).isNull();
+    }
+
+    @Test
+    void discardsFilesWithoutTheCurrentHeader() throws IOException {
+        Files.write(path(), new byte[]{0, 64, 'a', 'b', 'c'});
+
+        EmbeddingCache cache = open();
+        assertThat(cache.size()).isZero();
+        String key = cache.key("text");
+        cache.put(key, "doc-1", List.of(1.0));
+        cache.close();
+
+        assertThat(open().get(key)).containsExactly(1.0);
+    }
+
+    private EmbeddingCache open() {
+        EmbeddingCache cache = new EmbeddingCache(true, path().toString(), "test-model");
+        caches.add(cache);
+        return cache;
+    }
+
+    private Path path() {
+        return dir.resolve("cache.bin");
+    }
+}
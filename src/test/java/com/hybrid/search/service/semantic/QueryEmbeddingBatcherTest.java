@@ -0,0 +1,151 @@
+package com.hybrid.search.service.semantic;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryEmbeddingBatcherTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final EmbeddingClient embeddingClient = mock(EmbeddingClient.class);
+    private final List<QueryEmbeddingBatcher> batchers = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        batchers.forEach(QueryEmbeddingBatcher::shutdown);
+    }
+
+    @Test
+    void coalescesConcurrentQueriesIntoOneCallAndFansResultsOut() throws Exception {
+        when(embeddingClient.embed(anyList())).thenAnswer(invocation -> vectors(invocation.getArgument(0)));
+        QueryEmbeddingBatcher batcher = batcher(Runnable::run, 200, 10000);
+
+        List<String> queries = List.of("alpha", "beta", "gamma", "delta");
+        @SuppressWarnings("unchecked")
+        CompletableFuture<List<Double>>[] futures = new CompletableFuture[queries.size()];
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < queries.size(); i++) {
+            int index = i;
+            Thread caller = new Thread(() -> futures[index] = batcher.embed(queries.get(index)));
+            callers.add(caller);
+            caller.start();
+        }
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        for (int i = 0; i < queries.size(); i++) {
+            assertThat(futures[i]).succeedsWithin(WAIT).isEqualTo(vector(queries.get(i)));
+        }
+        verify(embeddingClient, times(1)).embed(anyList());
+    }
+
+    @Test
+    void embedsDuplicateQueriesOnce() {
+        when(embeddingClient.embed(anyList())).thenAnswer(invocation -> vectors(invocation.getArgument(0)));
+        QueryEmbeddingBatcher batcher = batcher(Runnable::run, 200, 10000);
+
+        CompletableFuture<List<Double>> first = batcher.embed("java");
+        CompletableFuture<List<Double>> other = batcher.embed("kotlin");
+        CompletableFuture<List<Double>> duplicate = batcher.embed("java");
+
+        assertThat(first).succeedsWithin(WAIT).isEqualTo(vector("java"));
+        assertThat(duplicate).succeedsWithin(WAIT).isEqualTo(vector("java"));
+        assertThat(other).succeedsWithin(WAIT).isEqualTo(vector("kotlin"));
+        verify(embeddingClient).embed(List.of("java", "kotlin"));
+    }
+
+    @Test
+    void rejectedBatchFailsOnlyItsOwnFutures() {
+        when(embeddingClient.embed(anyList())).thenAnswer(invocation -> vectors(invocation.getArgument(0)));
+        AtomicInteger dispatched = new AtomicInteger();
+        Executor rejectFirst = task -> {
+            if (dispatched.getAndIncrement() == 0) {
+                throw new RejectedExecutionException("full");
+            }
+            task.run();
+        };
+        QueryEmbeddingBatcher batcher = batcher(rejectFirst, 1, 10000);
+
+        assertThat(batcher.embed("rejected")).failsWithin(WAIT)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(RejectedExecutionException.class);
+        // The dispatcher survived the rejection and serves the next batch
+        assertThat(batcher.embed("next")).succeedsWithin(WAIT).isEqualTo(vector("next"));
+    }
+
+    @Test
+    void failedEmbeddingCallFailsOnlyItsOwnBatch() {
+        AtomicInteger calls = new AtomicInteger();
+        when(embeddingClient.embed(anyList())).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new IllegalStateException("embedding API down");
+            }
+            return vectors(invocation.getArgument(0));
+        });
+        QueryEmbeddingBatcher batcher = batcher(Runnable::run, 1, 10000);
+
+        assertThat(batcher.embed("failed")).failsWithin(WAIT)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IllegalStateException.class);
+        assertThat(batcher.embed("next")).succeedsWithin(WAIT).isEqualTo(vector("next"));
+    }
+
+    @Test
+    void failsWithTimeoutWhenNoEmbeddingArrives() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(embeddingClient.embed(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return vectors(invocation.getArgument(0));
+        });
+        Executor executor = task -> new Thread(task).start();
+        QueryEmbeddingBatcher batcher = batcher(executor, 1, 100);
+
+        try {
+            assertThat(batcher.embed("slow")).failsWithin(WAIT)
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(TimeoutException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private QueryEmbeddingBatcher batcher(Executor executor, long windowMs, long timeoutMs) {
+        QueryEmbeddingBatcher batcher = new QueryEmbeddingBatcher(embeddingClient, executor, new SimpleMeterRegistry(),
+                true, windowMs, 32, timeoutMs);
+        batchers.add(batcher);
+        return batcher;
+    }
+
+    private static List<List<Double>> vectors(List<String> texts) {
+        List<List<Double>> vectors = new ArrayList<>();
+        for (String text : texts) {
+            vectors.add(vector(text));
+        }
+        return vectors;
+    }
+
+    private static List<Double> vector(String text) {
+        return List.of((double) text.length(), (double) text.charAt(0));
+    }
+}
@@ -0,0 +1,74 @@
+package com.hybrid.search.service.semantic;
+
+import com.hybrid.search.dto.SearchResult;
+import com.hybrid.search.model.Document;
+import com.hybrid.search.service.cluster.ShardCoordinator;
+import com.hybrid.search.service.store.DocumentStore;
+import com.hybrid.search.service.tracing.SearchTrace;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SemanticSearchServiceTest {
+
+    @Test
+    void mergeKeepsTheGlobalTopKAcrossLocalAndPeerHits() {
+        List<SemanticHit> local = List.of(
+                new SemanticHit("local-1", 0.9, 0, null),
+                new SemanticHit("local-2", 0.5, 1, null),
+                new SemanticHit("local-3", 0.1, 2, null));
+        List<SearchResult> remote = List.of(
+                remote("peer-1", 0.95),
+                remote("peer-2", 0.6),
+                remote("peer-3", 0.2));
+
+        List<SemanticHit> merged = SemanticSearchService.mergeTopK(local, remote, 4);
+
+        assertThat(merged).extracting(SemanticHit::getId).containsExactly("peer-1", "local-1", "peer-2", "local-2");
+        assertThat(merged).extracting(SemanticHit::getScore).containsExactly(0.95, 0.9, 0.6, 0.5);
+        // Peer hits arrive hydrated and have no local ordinal
+        assertThat(merged.get(0).getDocument().getTitle()).isEqualTo("peer-1 title");
+        assertThat(merged.get(0).getOrdinal()).isEqualTo(-1);
+        assertThat(merged.get(1).getOrdinal()).isZero();
+    }
+
+    @Test
+    void mergeReturnsEverythingWhenFewerThanTopKHits() {
+        List<SemanticHit> merged = SemanticSearchService.mergeTopK(
+                List.of(new SemanticHit("local-1", 0.4, 0, null)), List.of(remote("peer-1", 0.7)), 10);
+
+        assertThat(merged).extracting(SemanticHit::getId).containsExactly("peer-1", "local-1");
+    }
+
+    @Test
+    void endsTheEmbeddingStageWhenTheEmbeddingTimesOut() {
+        QueryEmbeddingBatcher batcher = mock(QueryEmbeddingBatcher.class);
+        when(batcher.embed("query")).thenAnswer(invocation -> CompletableFuture.failedFuture(new TimeoutException()));
+        SemanticSearchService service = service(batcher);
+
+        SearchTrace trace = new SearchTrace("semantic", "query");
+        assertThat(service.searchHits("query", 10, trace)).isEmpty();
+        assertThat(trace.getStageNanos()).containsKey("embedding");
+
+        SearchTrace asyncTrace = new SearchTrace("semantic", "query");
+        assertThat(service.searchHitsAsync("query", 10, asyncTrace)).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(List.of());
+        assertThat(asyncTrace.getStageNanos()).containsKey("embedding");
+    }
+
+    private static SemanticSearchService service(QueryEmbeddingBatcher batcher) {
+        return new SemanticSearchService(mock(EmbeddingClient.class), mock(ShardCoordinator.class), mock(EmbeddingCache.class),
+                batcher, Runnable::run, new DocumentStore(), "scalar");
+    }
+
+    private static SearchResult remote(String id, double score) {
+        return new SearchResult(new Document(id, id + " title", "content", "type", "category"), score, "semantic");
+    }
+}
@@ -0,0 +1,36 @@
+package com.hybrid.search.service.semantic.kernel;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Known-answer checks for the scalar kernel, the reference the SIMD kernel is compared against
+ */
+class ScalarVectorKernelTest {
+
+    private final VectorKernel kernel = new ScalarVectorKernel();
+
+    @Test
+    void floatDot() {
+        assertThat(kernel.dot(new float[]{1, 2, 3}, new float[]{4, -5, 6})).isEqualTo(12f);
+        assertThat(kernel.dot(new float[0], new float[0])).isZero();
+    }
+
+    @Test
+    void int8DotSignExtendsBytes() {
+        // 127 * 127 + (-128) * (-128) + (-1) * 2
+        assertThat(kernel.dotInt8(new byte[]{127, -128, -1}, new byte[]{127, -128, 2})).isEqualTo(32511);
+    }
+
+    @Test
+    void hammingCountsDifferingBits() {
+        assertThat(kernel.hamming(new long[0], new long[0])).isZero();
+        assertThat(kernel.hamming(new long[]{0L}, new long[]{0L})).isZero();
+        assertThat(kernel.hamming(new long[]{0L}, new long[]{-1L})).isEqualTo(64);
+        assertThat(kernel.hamming(new long[]{0xFFL}, new long[]{0x0FL})).isEqualTo(4);
+        assertThat(kernel.hamming(new long[]{0x5555555555555555L}, new long[]{0xAAAAAAAAAAAAAAAAL})).isEqualTo(64);
+        // Sign bit and every word of a multi-word vector count
+        assertThat(kernel.hamming(new long[]{1L, Long.MIN_VALUE, 0xF0F0L}, new long[]{0L, 0L, 0x0F0FL})).isEqualTo(18);
+    }
+}
@@ -0,0 +1,85 @@
+package com.hybrid.search.service.semantic.kernel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the scalar and SIMD scoring kernels on embedding-sized vectors
+ * Not run by the test suite; see "Vector Scoring Kernel" in the README for how to run it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class VectorKernelBenchmark {
+
+    @Param({"scalar", "simd"})
+    private String kernel;
+
+    @Param({"384", "1536"})
+    private int dimensions;
+
+    private VectorKernel vectorKernel;
+    private float[] floatA;
+    private float[] floatB;
+    private byte[] int8A;
+    private byte[] int8B;
+    private long[] bitsA;
+    private long[] bitsB;
+
+    @Setup
+    public void setUp() {
+        vectorKernel = VectorKernels.select(kernel);
+        Random random = new Random(42);
+        floatA = new float[dimensions];
+        floatB = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            floatA[i] = random.nextFloat() * 2 - 1;
+            floatB[i] = random.nextFloat() * 2 - 1;
+        }
+        int8A = new byte[dimensions];
+        int8B = new byte[dimensions];
+        random.nextBytes(int8A);
+        random.nextBytes(int8B);
+        bitsA = random.longs(dimensions / 64).toArray();
+        bitsB = random.longs(dimensions / 64).toArray();
+    }
+
+    @Benchmark
+    public float dot() {
+        return vectorKernel.dot(floatA, floatB);
+    }
+
+    @Benchmark
+    public int dotInt8() {
+        return vectorKernel.dotInt8(int8A, int8B);
+    }
+
+    @Benchmark
+    public int hamming() {
+        return vectorKernel.hamming(bitsA, bitsB);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VectorKernelBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.hybrid.search.service.semantic.kernel;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that the SIMD kernel matches the scalar kernel, including lengths that leave a scalar tail
+ * after the last full vector for every common lane count
+ * Hamming distance is not compared here: the SIMD kernel inherits the scalar implementation
+ */
+class VectorKernelTest {
+
+    private static final VectorKernel SCALAR = new ScalarVectorKernel();
+    private static VectorKernel simd;
+
+    @BeforeAll
+    static void loadSimdKernel() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "jdk.incubator.vector not enabled");
+        simd = new SimdVectorKernel();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 4, 5, 7, 8, 9, 15, 16, 17, 31, 32, 33, 63, 64, 65, 127, 128, 129, 384, 1536, 1537})
+    void floatDotMatchesScalar(int length) {
+        Random random = new Random(length);
+        float[] a = new float[length];
+        float[] b = new float[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = random.nextFloat() * 2 - 1;
+            b[i] = random.nextFloat() * 2 - 1;
+        }
+
+        // Lane-wise accumulation changes the rounding order, so allow a small relative error
+        float expected = SCALAR.dot(a, b);
+        assertThat(simd.dot(a, b)).isCloseTo(expected, within(1e-4f * Math.max(1, length)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 8, 15, 16, 17, 31, 32, 33, 63, 64, 65, 127, 128, 129, 384, 1536, 1537})
+    void int8DotMatchesScalar(int length) {
+        Random random = new Random(length);
+        byte[] a = new byte[length];
+        byte[] b = new byte[length];
+        random.nextBytes(a);
+        random.nextBytes(b);
+
+        assertThat(simd.dotInt8(a, b)).isEqualTo(SCALAR.dotInt8(a, b));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 15, 16, 17, 63, 64, 65, 1536})
+    void int8DotSignExtendsEveryWidenedPart(int length) {
+        // Extreme values in every byte position catch a part that is skipped, repeated or zero-extended
+        byte[] a = new byte[length];
+        byte[] b = new byte[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = i % 2 == 0 ? Byte.MIN_VALUE : Byte.MAX_VALUE;
+            b[i] = (byte) (i % 3 == 0 ? -1 : i);
+        }
+
+        assertThat(simd.dotInt8(a, b)).isEqualTo(SCALAR.dotInt8(a, b));
+        assertThat(simd.dotInt8(a, a)).isEqualTo(SCALAR.dotInt8(a, a));
+    }
+}
@@ -0,0 +1,100 @@
+package com.hybrid.search.service.store;
+
+import com.hybrid.search.model.Document;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentStoreTest {
+
+    private final DocumentStore store = new DocumentStore();
+
+    @Test
+    void compressesRepetitiveContent() {
+        String content = "Senior Java developer with Spring Boot experience. ".repeat(50);
+
+        DocumentStore.CompressedText compressed = DocumentStore.compress(content);
+        assertThat(compressed.rawLength).isEqualTo(content.length());
+        assertThat(compressed.bytes.length).isLessThan(content.length());
+        assertRoundTrip(content);
+    }
+
+    @Test
+    void keepsShortAndIncompressibleContentRaw() {
+        // Random printable characters grow under deflate
+        Random random = new Random(42);
+        StringBuilder incompressible = new StringBuilder();
+        for (int i = 0; i < 128; i++) {
+            incompressible.append((char) ('!' + random.nextInt(94)));
+        }
+
+        for (String content : List.of("", "Java", incompressible.toString())) {
+            assertThat(DocumentStore.compress(content).rawLength).as(content).isEqualTo(-1);
+            assertRoundTrip(content);
+        }
+    }
+
+    @Test
+    void roundTripsMultiByteUtf8() {
+        String shortText = "Café — naïve résumé, 検索エンジン, emoji 🚀";
+        String longText = "検索エンジンの開発者 ".repeat(100);
+        assertThat(DocumentStore.compress(shortText).rawLength).isEqualTo(-1);
+        assertThat(DocumentStore.compress(longText).rawLength).isEqualTo(longText.getBytes(StandardCharsets.UTF_8).length);
+
+        assertRoundTrip(shortText);
+        assertRoundTrip(longText);
+    }
+
+    @Test
+    void keepsNullContentAndFields() {
+        int ordinal = store.put(new Document("doc-1", null, null, null, null));
+
+        Document document = store.get(ordinal);
+        assertThat(document.getId()).isEqualTo("doc-1");
+        assertThat(document.getTitle()).isNull();
+        assertThat(document.getContent()).isNull();
+        assertThat(document.getType()).isNull();
+        assertThat(document.getCategory()).isNull();
+    }
+
+    @Test
+    void reputKeepsTheOrdinalAndReplacesTheDocument() {
+        int first = store.put(document("doc-1", "original"));
+        int other = store.put(document("doc-2", "other"));
+        int again = store.put(document("doc-1", "edited"));
+
+        assertThat(again).isEqualTo(first);
+        assertThat(other).isNotEqualTo(first);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get(first).getContent()).isEqualTo("edited");
+        assertThat(store.getId(other)).isEqualTo("doc-2");
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        int count = 5000;
+        for (int i = 0; i < count; i++) {
+            assertThat(store.put(document("doc-" + i, "content " + i))).isEqualTo(i);
+        }
+
+        assertThat(store.size()).isEqualTo(count);
+        for (int i = 0; i < count; i++) {
+            assertThat(store.getId(i)).isEqualTo("doc-" + i);
+            assertThat(store.get(i).getContent()).isEqualTo("content " + i);
+        }
+    }
+
+    private void assertRoundTrip(String content) {
+        Document original = new Document("doc-" + content.hashCode(), "Title", content, "job_description", "engineering");
+        Document stored = store.get(store.put(original));
+        assertThat(stored).isEqualTo(original);
+    }
+
+    private static Document document(String id, String content) {
+        return new Document(id, "Title " + id, content, "job_description", "engineering");
+    }
+}